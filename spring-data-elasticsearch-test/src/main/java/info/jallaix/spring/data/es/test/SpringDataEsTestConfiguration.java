@@ -1,21 +1,53 @@
 package info.jallaix.spring.data.es.test;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import info.jallaix.spring.data.es.test.util.HttpConnectionMetrics;
+import info.jallaix.spring.data.es.test.util.LatencyInjectingClient;
+import info.jallaix.spring.data.es.test.util.PayloadSizeInterceptor;
 import info.jallaix.spring.data.es.test.util.TestClientOperations;
 import info.jallaix.spring.data.es.test.util.TestDocumentsLoader;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.node.NodeBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
 import org.springframework.hateoas.hal.Jackson2HalModule;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsAsyncClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.AsyncRestTemplate;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.File;
@@ -24,8 +56,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Spring configuration for Elasticsearch repository tests.
@@ -33,12 +67,19 @@ import java.util.List;
 @Configuration
 public class SpringDataEsTestConfiguration {
 
+    /**
+     * Environment holding the HTTP client properties
+     */
+    @Autowired
+    private Environment environment;
+
     /**
      * Define the Elasticsearch client, used by the Elasticsearch Test framework
      *
      * @return The Elasticsearch client
      */
     @Bean
+    @Primary
     public Client elasticsearchClient() throws IOException {
 
         // Clean the testing Elasticsearch index (may be inconsistent)
@@ -58,6 +99,24 @@ public class SpringDataEsTestConfiguration {
         return nodeBuilder.node().client();
     }
 
+    /**
+     * Define the Elasticsearch client of the {@link #elasticsearchTemplate()} bean, used by the tested repositories.
+     * The Elasticsearch Test framework uses the {@link #elasticsearchClient()} bean, so that its expectation queries aren't delayed.
+     * <ul>
+     * <li>{@code testing.elasticsearch.latency-injection} - Wrap the client in a {@link LatencyInjectingClient} (default false)</li>
+     * </ul>
+     *
+     * @return The Elasticsearch client of the repositories
+     */
+    @Bean
+    public Client repositoryElasticsearchClient() throws IOException {
+
+        if (environment.getProperty("testing.elasticsearch.latency-injection", Boolean.class, false))
+            return new LatencyInjectingClient(elasticsearchClient());
+
+        return elasticsearchClient();
+    }
+
     /**
      * Define the Elastic search operations template, used by the Spring Data framework
      *
@@ -65,7 +124,7 @@ public class SpringDataEsTestConfiguration {
      */
     @Bean
     public ElasticsearchOperations elasticsearchTemplate() throws IOException {
-        return new ElasticsearchTemplate(elasticsearchClient());
+        return new ElasticsearchTemplate(repositoryElasticsearchClient());
     }
 
     /**
@@ -75,7 +134,7 @@ public class SpringDataEsTestConfiguration {
      */
     @Bean
     public TestDocumentsLoader testDocumentsLoader() throws IOException {
-        return new TestDocumentsLoader(elasticsearchTemplate());
+        return new TestDocumentsLoader(testElasticsearchTemplate());
     }
 
     /**
@@ -85,37 +144,244 @@ public class SpringDataEsTestConfiguration {
      */
     @Bean
     public TestClientOperations testClientOperations() throws IOException {
-        return new TestClientOperations(elasticsearchClient(), elasticsearchTemplate());
+        return new TestClientOperations(elasticsearchClient(), testElasticsearchTemplate());
+    }
+
+    /**
+     * Get the Elastic search operations template of the Elasticsearch Test framework :
+     * the {@link #elasticsearchTemplate()} bean, unless the repositories use a latency injecting client.
+     *
+     * @return The Elastic search operations template of the Elasticsearch Test framework
+     */
+    private ElasticsearchOperations testElasticsearchTemplate() throws IOException {
+
+        if (repositoryElasticsearchClient() instanceof LatencyInjectingClient)
+            return new ElasticsearchTemplate(elasticsearchClient());
+
+        return elasticsearchTemplate();
+    }
+
+    /**
+     * Define the pooling connection manager of the HTTP client.
+     * Each opened connection is recorded by the {@link #httpConnectionMetrics()} bean.
+     * <ul>
+     * <li>{@code testing.http.pool.max-total} - Maximum number of pooled connections (default 200)</li>
+     * <li>{@code testing.http.pool.max-per-route} - Maximum number of pooled connections per route (default 50)</li>
+     * </ul>
+     *
+     * @return The pooling connection manager
+     */
+    @Bean
+    public PoolingHttpClientConnectionManager httpClientConnectionManager() {
+
+        // Count each opened connection
+        HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> connectionFactory = (route, config) -> {
+            httpConnectionMetrics().connectionOpened();
+            return ManagedHttpClientConnectionFactory.INSTANCE.create(route, config);
+        };
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                        .build(),
+                connectionFactory);
+        connectionManager.setMaxTotal(environment.getProperty("testing.http.pool.max-total", Integer.class, 200));
+        connectionManager.setDefaultMaxPerRoute(environment.getProperty("testing.http.pool.max-per-route", Integer.class, 50));
+
+        return connectionManager;
+    }
+
+    /**
+     * Define the connection metrics of the HTTP client.
+     *
+     * @return The HTTP connection metrics
+     */
+    @Bean
+    public HttpConnectionMetrics httpConnectionMetrics() {
+        return new HttpConnectionMetrics(httpClientConnectionManager());
+    }
+
+    /**
+     * Define the pooled keep-alive HTTP client used by the REST templates.
+     * <ul>
+     * <li>{@code testing.http.connect-timeout} - Connection timeout in milliseconds (default 5000)</li>
+     * <li>{@code testing.http.read-timeout} - Socket read timeout in milliseconds (default 30000)</li>
+     * <li>{@code testing.http.pool.lease-timeout} - Timeout in milliseconds to lease a pooled connection (default 5000)</li>
+     * <li>{@code testing.http.keep-alive} - Keep-alive duration in milliseconds when the server doesn't send one (default 30000)</li>
+     * <li>{@code testing.http.pool.idle-eviction} - Idle duration in milliseconds after which a connection is closed (default 30000)</li>
+     * </ul>
+     *
+     * @return The HTTP client
+     */
+    @Bean
+    @Primary
+    public CloseableHttpClient httpClient() {
+
+        final long defaultKeepAlive = environment.getProperty("testing.http.keep-alive", Long.class, 30000L);
+        final long idleEviction = environment.getProperty("testing.http.pool.idle-eviction", Long.class, 30000L);
+
+        return HttpClientBuilder.create()
+                .setConnectionManager(httpClientConnectionManager())
+                .setDefaultRequestConfig(httpRequestConfig())
+                .setKeepAliveStrategy((response, context) -> {
+                    // Use the server keep-alive if any, else the configured one
+                    long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return keepAlive > 0 ? keepAlive : defaultKeepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEviction, TimeUnit.MILLISECONDS)
+                .addInterceptorFirst((HttpRequestInterceptor) (request, context) -> httpConnectionMetrics().requestSent())
+                .build();
     }
 
     /**
-     * Define a HAL REST template.
+     * Define an HTTP client that doesn't decode compressed responses, so that their encoded size can be measured.
+     * It shares the connection pool of the {@link #httpClient()} bean.
+     *
+     * @return The raw HTTP client
+     */
+    @Bean
+    public CloseableHttpClient rawHttpClient() {
+
+        return HttpClientBuilder.create()
+                .setConnectionManager(httpClientConnectionManager())
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(httpRequestConfig())
+                .disableContentCompression()
+                .addInterceptorFirst((HttpRequestInterceptor) (request, context) -> httpConnectionMetrics().requestSent())
+                .build();
+    }
+
+    /**
+     * Define the non-blocking HTTP client used by the asynchronous REST template.
+     * It shares the pool and timeout properties of the {@link #httpClient()} bean.
+     * <ul>
+     * <li>{@code testing.http.io-threads} - Number of I/O dispatcher threads (default is the number of processors)</li>
+     * </ul>
+     *
+     * @return The non-blocking HTTP client
+     */
+    @Bean
+    public CloseableHttpAsyncClient httpAsyncClient() throws IOReactorException {
+
+        final RequestConfig requestConfig = httpRequestConfig();
+
+        PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(
+                new DefaultConnectingIOReactor(IOReactorConfig.custom()
+                        .setIoThreadCount(environment.getProperty("testing.http.io-threads", Integer.class, Runtime.getRuntime().availableProcessors()))
+                        .setConnectTimeout(requestConfig.getConnectTimeout())
+                        .setSoTimeout(requestConfig.getSocketTimeout())
+                        .build()));
+        connectionManager.setMaxTotal(environment.getProperty("testing.http.pool.max-total", Integer.class, 200));
+        connectionManager.setDefaultMaxPerRoute(environment.getProperty("testing.http.pool.max-per-route", Integer.class, 50));
+
+        return HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .build();
+    }
+
+    /**
+     * Define the interceptor counting the payload bytes exchanged by the HAL REST template.
+     *
+     * @return The payload size interceptor
+     */
+    @Bean
+    public PayloadSizeInterceptor payloadSizeInterceptor() {
+        return new PayloadSizeInterceptor();
+    }
+
+    /**
+     * Define a HAL REST template, whose payload sizes can be counted by the {@link #payloadSizeInterceptor()} bean.
+     * <ul>
+     * <li>{@code testing.payload-metrics.enabled} - Count the payload sizes of the exchanges (default false)</li>
+     * </ul>
      *
      * @return A HAL REST template
      */
     @Bean
     public RestTemplate halRestTemplate() {
 
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setRequestFactory(new HttpComponentsClientHttpRequestFactory(httpClient()));
+        restTemplate.setMessageConverters(halMessageConverters());
+        if (environment.getProperty("testing.payload-metrics.enabled", Boolean.class, false))
+            restTemplate.setInterceptors(Collections.singletonList(payloadSizeInterceptor()));
+
+        return restTemplate;
+    }
+
+    /**
+     * Define a non-blocking HAL REST template, with the same message converters as the {@link #halRestTemplate()} bean.
+     *
+     * @return A non-blocking HAL REST template
+     */
+    @Bean
+    public AsyncRestTemplate halAsyncRestTemplate() throws IOReactorException {
+
+        AsyncRestTemplate asyncRestTemplate = new AsyncRestTemplate(new HttpComponentsAsyncClientHttpRequestFactory(httpAsyncClient()));
+        asyncRestTemplate.setMessageConverters(halMessageConverters());
+
+        return asyncRestTemplate;
+    }
+
+    /**
+     * Build the default request configuration of the HTTP clients.
+     *
+     * @return The request configuration
+     */
+    private RequestConfig httpRequestConfig() {
+
+        return RequestConfig.custom()
+                .setConnectTimeout(environment.getProperty("testing.http.connect-timeout", Integer.class, 5000))
+                .setSocketTimeout(environment.getProperty("testing.http.read-timeout", Integer.class, 30000))
+                .setConnectionRequestTimeout(environment.getProperty("testing.http.pool.lease-timeout", Integer.class, 5000))
+                .build();
+    }
+
+    /**
+     * Build the message converters of the HAL REST templates : byte arrays, HAL resources in JSON, Smile and CBOR, then strings.
+     *
+     * @return The message converters
+     */
+    private List<HttpMessageConverter<?>> halMessageConverters() {
+
         List<HttpMessageConverter<?>> messageConverters = new ArrayList<HttpMessageConverter<?>>();
 
+        // Configure byte array converter first, so that pre-encoded bodies are sent as they are
+        messageConverters.add(new ByteArrayHttpMessageConverter());
+
+        // Configure Jackson converters for JSON, then for the Smile and CBOR binary formats
+        messageConverters.add(jacksonConverter(new JsonFactory(), "application/json,application/hal+json,application/patch+json"));
+        messageConverters.add(jacksonConverter(new SmileFactory(), "application/x-jackson-smile"));
+        messageConverters.add(jacksonConverter(new CBORFactory(), "application/cbor"));
+
+        // Configure String converter
+        messageConverters.add(new StringHttpMessageConverter());
+
+        return messageConverters;
+    }
+
+    /**
+     * Build a Jackson converter reading and writing HAL resources in a data format.
+     *
+     * @param jsonFactory         The factory of the data format parsers and generators
+     * @param supportedMediaTypes The comma-separated media types of the data format
+     * @return The Jackson converter
+     */
+    private MappingJackson2HttpMessageConverter jacksonConverter(JsonFactory jsonFactory, String supportedMediaTypes) {
+
         // Configure Jackson mapper for Jackson converter
-        ObjectMapper mapper = new ObjectMapper();
+        ObjectMapper mapper = new ObjectMapper(jsonFactory);
         mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         mapper.registerModule(new Jackson2HalModule());
 
         // Configure Jackson converter
         MappingJackson2HttpMessageConverter jacksonConverter = new MappingJackson2HttpMessageConverter();
-        jacksonConverter.setSupportedMediaTypes(MediaType.parseMediaTypes("application/json,application/hal+json,application/patch+json"));
+        jacksonConverter.setSupportedMediaTypes(MediaType.parseMediaTypes(supportedMediaTypes));
         jacksonConverter.setObjectMapper(mapper);
-        messageConverters.add(jacksonConverter);
 
-        // Configure String converter
-        messageConverters.add(new StringHttpMessageConverter());
-
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.setRequestFactory(new HttpComponentsClientHttpRequestFactory());
-        restTemplate.setMessageConverters(messageConverters);
-
-        return restTemplate;
+        return jacksonConverter;
     }
 }
@@ -0,0 +1,37 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Settings of a binary format test.
+ * <ul>
+ *    <li>{@code mediaTypes} - {@link List} - Compared media types, the reference one first
+ *    <li>{@code warmUpCalls} - {@code int} - Number of calls for warm-up on each media type
+ *    <li>{@code sampledCalls} - {@code int} - Number of sampled calls on each media type
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BinaryFormatSettings {
+
+    /**
+     * Compared media types, the reference one first
+     */
+    private List<String> mediaTypes = Arrays.asList("application/hal+json", "application/x-jackson-smile", "application/cbor");
+
+    /**
+     * Number of calls for warm-up on each media type
+     */
+    private int warmUpCalls = 5;
+
+    /**
+     * Number of sampled calls on each media type
+     */
+    private int sampledCalls = 20;
+}
@@ -0,0 +1,46 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings of a bulk backpressure test.
+ * <ul>
+ *    <li>{@code threads} - {@code int} - Number of concurrent saving threads
+ *    <li>{@code savesPerThread} - {@code int} - Number of bulk saves by each thread
+ *    <li>{@code batchSize} - {@code int} - Number of documents saved by each bulk save
+ *    <li>{@code poolSize} - {@code int} - Number of threads of the node bulk thread pool during the test
+ *    <li>{@code queueSize} - {@code int} - Queue size of the node bulk thread pool during the test
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkBackpressureSettings {
+
+    /**
+     * Number of concurrent saving threads
+     */
+    private int threads = 8;
+
+    /**
+     * Number of bulk saves by each thread
+     */
+    private int savesPerThread = 20;
+
+    /**
+     * Number of documents saved by each bulk save
+     */
+    private int batchSize = 100;
+
+    /**
+     * Number of threads of the node bulk thread pool during the test
+     */
+    private int poolSize = 1;
+
+    /**
+     * Queue size of the node bulk thread pool during the test
+     */
+    private int queueSize = 1;
+}
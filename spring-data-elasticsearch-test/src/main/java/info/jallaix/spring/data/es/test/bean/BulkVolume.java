@@ -0,0 +1,56 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import info.jallaix.spring.data.es.test.util.LoadStatistics;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a large-volume bulk save, for a batch size.
+ * <ul>
+ *    <li>{@code batchSize} - {@code int} - Number of documents saved by each call
+ *    <li>{@code documents} - {@code long} - Number of saved documents
+ *    <li>{@code latency} - {@link LoadStatistics} - Latency statistics of the save calls
+ *    <li>{@code elapsedNanos} - {@code long} - Elapsed time of all save calls in nanoseconds
+ *    <li>{@code peakHeapBytes} - {@code long} - Peak heap usage during the save calls in bytes
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkVolume {
+
+    /**
+     * Number of documents saved by each call
+     */
+    private int batchSize;
+
+    /**
+     * Number of saved documents
+     */
+    private long documents;
+
+    /**
+     * Latency statistics of the save calls
+     */
+    private LoadStatistics latency;
+
+    /**
+     * Elapsed time of all save calls in nanoseconds
+     */
+    private long elapsedNanos;
+
+    /**
+     * Peak heap usage during the save calls in bytes
+     */
+    private long peakHeapBytes;
+
+    /**
+     * Get the throughput of the saved documents.
+     *
+     * @return The number of saved documents per second
+     */
+    public double getDocumentsPerSecond() {
+        return elapsedNanos == 0 ? 0 : documents * 1e9 / elapsedNanos;
+    }
+}
@@ -0,0 +1,34 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings of a compression test.
+ * <ul>
+ *    <li>{@code acceptEncoding} - {@link String} - Accepted content encodings of the compressed requests
+ *    <li>{@code warmUpCalls} - {@code int} - Number of calls for warm-up on each endpoint and encoding
+ *    <li>{@code sampledCalls} - {@code int} - Number of sampled calls on each endpoint and encoding
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompressionSettings {
+
+    /**
+     * Accepted content encodings of the compressed requests
+     */
+    private String acceptEncoding = "gzip";
+
+    /**
+     * Number of calls for warm-up on each endpoint and encoding
+     */
+    private int warmUpCalls = 5;
+
+    /**
+     * Number of sampled calls on each endpoint and encoding
+     */
+    private int sampledCalls = 20;
+}
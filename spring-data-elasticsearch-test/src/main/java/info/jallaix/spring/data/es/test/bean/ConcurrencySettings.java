@@ -0,0 +1,31 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Settings of a concurrent write test.
+ * <ul>
+ *    <li>{@code threadCounts} - {@link List} - Numbers of concurrent writing threads, played in order
+ *    <li>{@code writesPerThread} - {@code int} - Number of writes by each thread
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConcurrencySettings {
+
+    /**
+     * Numbers of concurrent writing threads, played in order
+     */
+    private List<Integer> threadCounts = Arrays.asList(1, 2, 4, 8);
+
+    /**
+     * Number of writes by each thread
+     */
+    private int writesPerThread = 50;
+}
@@ -0,0 +1,41 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import info.jallaix.spring.data.es.test.util.LoadStatistics;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of concurrent writes on the same documents, for a number of threads.
+ * <ul>
+ *    <li>{@code threads} - {@code int} - Number of concurrent writing threads
+ *    <li>{@code conflicts} - {@code long} - Number of writes rejected with a version conflict
+ *    <li>{@code latency} - {@link LoadStatistics} - Latency of the writes, rejected ones included
+ *    <li>{@code elapsedNanos} - {@code long} - Duration of the writes in nanoseconds
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConcurrentWrites {
+
+    /**
+     * Number of concurrent writing threads
+     */
+    private int threads;
+
+    /**
+     * Number of writes rejected with a version conflict
+     */
+    private long conflicts;
+
+    /**
+     * Latency of the writes, rejected ones included
+     */
+    private LoadStatistics latency;
+
+    /**
+     * Duration of the writes in nanoseconds
+     */
+    private long elapsedNanos;
+}
@@ -0,0 +1,28 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings of a conditional GET savings test.
+ * <ul>
+ *    <li>{@code warmUpCalls} - {@code int} - Number of calls for warm-up of the full and conditional GET requests
+ *    <li>{@code sampledCalls} - {@code int} - Number of sampled calls of the full and conditional GET requests
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConditionalGetSettings {
+
+    /**
+     * Number of calls for warm-up of the full and conditional GET requests
+     */
+    private int warmUpCalls = 5;
+
+    /**
+     * Number of sampled calls of the full and conditional GET requests
+     */
+    private int sampledCalls = 20;
+}
@@ -0,0 +1,46 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings of a deep paging cost test.
+ * <ul>
+ *    <li>{@code warmUpCalls} - {@code int} - Number of calls for warm-up on each probed page
+ *    <li>{@code sampledCalls} - {@code int} - Number of sampled calls on each probed page
+ *    <li>{@code maxExponent} - {@code double} - Maximum exponent of the deep page cost curve, above which the cost growth is excessive
+ *    <li>{@code minPages} - {@code int} - Minimum number of pages of the fixture, below which the offset span is too short to probe
+ *    <li>{@code minRSquared} - {@code double} - Minimum coefficient of determination of the cost curve, below which a steep curve is only noise
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeepPagingSettings {
+
+    /**
+     * Number of calls for warm-up on each probed page
+     */
+    private int warmUpCalls = 5;
+
+    /**
+     * Number of sampled calls on each probed page
+     */
+    private int sampledCalls = 20;
+
+    /**
+     * Maximum exponent of the deep page cost curve, above which the cost growth is excessive
+     */
+    private double maxExponent = 1.5;
+
+    /**
+     * Minimum number of pages of the fixture, below which the offset span is too short to probe
+     */
+    private int minPages = 16;
+
+    /**
+     * Minimum coefficient of determination of the cost curve, below which a steep curve is only noise
+     */
+    private double minRSquared = 0.8;
+}
@@ -0,0 +1,53 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import info.jallaix.spring.data.es.test.util.LoadStatistics;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response sizes and latencies of an endpoint, with and without compression.
+ * <ul>
+ *    <li>{@code endpoint} - {@link String} - Endpoint label
+ *    <li>{@code contentEncoding} - {@link String} - Content encoding of the compressed response, {@code identity} if the response wasn't compressed
+ *    <li>{@code identityBytes} - {@code long} - Size of the uncompressed response body
+ *    <li>{@code encodedBytes} - {@code long} - Size of the compressed response body, as received
+ *    <li>{@code identityLatency} - {@link LoadStatistics} - Latency of the uncompressed requests
+ *    <li>{@code encodedLatency} - {@link LoadStatistics} - Latency of the compressed requests, decoding included
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointCompression {
+
+    /**
+     * Endpoint label
+     */
+    private String endpoint;
+
+    /**
+     * Content encoding of the compressed response, {@code identity} if the response wasn't compressed
+     */
+    private String contentEncoding;
+
+    /**
+     * Size of the uncompressed response body
+     */
+    private long identityBytes;
+
+    /**
+     * Size of the compressed response body, as received
+     */
+    private long encodedBytes;
+
+    /**
+     * Latency of the uncompressed requests
+     */
+    private LoadStatistics identityLatency;
+
+    /**
+     * Latency of the compressed requests, decoding included
+     */
+    private LoadStatistics encodedLatency;
+}
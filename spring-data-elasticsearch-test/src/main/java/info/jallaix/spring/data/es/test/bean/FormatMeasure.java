@@ -0,0 +1,59 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import info.jallaix.spring.data.es.test.util.LoadStatistics;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload sizes and serialization latencies of a web service method, for a media type.
+ * <ul>
+ *    <li>{@code method} - {@link String} - Tested method label
+ *    <li>{@code mediaType} - {@link String} - Media type of the request and response bodies
+ *    <li>{@code requestBytes} - {@code long} - Size of the request body
+ *    <li>{@code responseBytes} - {@code long} - Size of the response body
+ *    <li>{@code encodeLatency} - {@link LoadStatistics} - Latency of the request body serialization by the client
+ *    <li>{@code exchangeLatency} - {@link LoadStatistics} - Latency of the exchange, server deserialization and serialization included
+ *    <li>{@code decodeLatency} - {@link LoadStatistics} - Latency of the response body deserialization by the client
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FormatMeasure {
+
+    /**
+     * Tested method label
+     */
+    private String method;
+
+    /**
+     * Media type of the request and response bodies
+     */
+    private String mediaType;
+
+    /**
+     * Size of the request body
+     */
+    private long requestBytes;
+
+    /**
+     * Size of the response body
+     */
+    private long responseBytes;
+
+    /**
+     * Latency of the request body serialization by the client
+     */
+    private LoadStatistics encodeLatency;
+
+    /**
+     * Latency of the exchange, server deserialization and serialization included
+     */
+    private LoadStatistics exchangeLatency;
+
+    /**
+     * Latency of the response body deserialization by the client
+     */
+    private LoadStatistics decodeLatency;
+}
@@ -0,0 +1,30 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * HTTP exchanges recorded during a test class run, with the hash of the fixture they were recorded with.
+ * <ul>
+ *    <li>{@code fixtureHash} - {@link String} - Hash of the test fixture at recording time
+ *    <li>{@code exchanges} - {@link List} - Recorded exchanges, in sending order
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HttpRecording {
+
+    /**
+     * Hash of the test fixture at recording time
+     */
+    private String fixtureHash;
+
+    /**
+     * Recorded exchanges, in sending order
+     */
+    private List<RecordedExchange> exchanges;
+}
@@ -0,0 +1,54 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Latency injected into the Elasticsearch client calls.
+ * The added delay follows a log-normal distribution defined by its median and its 99th percentile,
+ * then some calls stall and response transfers are throttled.
+ * <ul>
+ *    <li>{@code name} - {@link String} - Profile name
+ *    <li>{@code medianMillis} - {@code double} - Median of the added delay in milliseconds, no delay if 0
+ *    <li>{@code p99Millis} - {@code double} - 99th percentile of the added delay in milliseconds, constant delay if not above the median
+ *    <li>{@code stallProbability} - {@code double} - Probability that a call stalls, between 0 and 1
+ *    <li>{@code stallMillis} - {@code long} - Stall duration in milliseconds
+ *    <li>{@code bytesPerSecond} - {@code long} - Transfer rate of the responses, unlimited if 0
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencyProfile {
+
+    /**
+     * Profile name
+     */
+    private String name;
+
+    /**
+     * Median of the added delay in milliseconds, no delay if 0
+     */
+    private double medianMillis;
+
+    /**
+     * 99th percentile of the added delay in milliseconds, constant delay if not above the median
+     */
+    private double p99Millis;
+
+    /**
+     * Probability that a call stalls, between 0 and 1
+     */
+    private double stallProbability;
+
+    /**
+     * Stall duration in milliseconds
+     */
+    private long stallMillis;
+
+    /**
+     * Transfer rate of the responses, unlimited if 0
+     */
+    private long bytesPerSecond;
+}
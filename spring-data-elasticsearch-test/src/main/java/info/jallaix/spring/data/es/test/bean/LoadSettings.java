@@ -0,0 +1,34 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings of a load test.
+ * <ul>
+ *    <li>{@code workers} - {@code int} - Number of concurrent workers
+ *    <li>{@code durationMillis} - {@code long} - Load duration in milliseconds
+ *    <li>{@code maxCalls} - {@code long} - Maximum number of calls over all workers
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadSettings {
+
+    /**
+     * Number of concurrent workers
+     */
+    private int workers = 4;
+
+    /**
+     * Load duration in milliseconds
+     */
+    private long durationMillis = 10000;
+
+    /**
+     * Maximum number of calls over all workers
+     */
+    private long maxCalls = Long.MAX_VALUE;
+}
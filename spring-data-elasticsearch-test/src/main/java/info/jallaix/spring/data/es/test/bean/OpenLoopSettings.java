@@ -0,0 +1,45 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of an open-loop load test.
+ * <ul>
+ *    <li>{@code callsPerSecond} - {@code double} - Target number of calls per second
+ *    <li>{@code durationMillis} - {@code long} - Load duration in milliseconds
+ *    <li>{@code maxConcurrency} - {@code int} - Maximum number of concurrent calls
+ *    <li>{@code mix} - {@link Map} - Weight of each scenario in the mix
+ * </ul>
+ *
+ * @param <K> The scenario key type
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpenLoopSettings<K> {
+
+    /**
+     * Target number of calls per second
+     */
+    private double callsPerSecond = 100;
+
+    /**
+     * Load duration in milliseconds
+     */
+    private long durationMillis = 10000;
+
+    /**
+     * Maximum number of concurrent calls
+     */
+    private int maxConcurrency = 64;
+
+    /**
+     * Weight of each scenario in the mix
+     */
+    private Map<K, Double> mix = new LinkedHashMap<>();
+}
@@ -0,0 +1,38 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.hateoas.Resource;
+import org.springframework.http.MediaType;
+
+/**
+ * Pre-computed PATCH request payload, with the resource the PATCH response must match.
+ * <ul>
+ *    <li>{@code body} - {@code byte[]} - Encoded JSON Patch or JSON Merge Patch document
+ *    <li>{@code contentType} - {@link MediaType} - Content type of the patch document
+ *    <li>{@code expectedResource} - {@link Resource} - Resource of the patched entity
+ * </ul>
+ *
+ * @param <T> The entity type
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatchPayload<T> {
+
+    /**
+     * Encoded JSON Patch or JSON Merge Patch document
+     */
+    private byte[] body;
+
+    /**
+     * Content type of the patch document
+     */
+    private MediaType contentType;
+
+    /**
+     * Resource of the patched entity
+     */
+    private Resource<T> expectedResource;
+}
@@ -0,0 +1,40 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings of a query method benchmark.
+ * <ul>
+ *    <li>{@code warmUpCalls} - {@code int} - Number of calls for warm-up on each query method
+ *    <li>{@code sampledCalls} - {@code int} - Number of sampled calls on each query method
+ *    <li>{@code p95Millis} - {@code double} - Maximum 95th percentile latency of each query method in milliseconds
+ *    <li>{@code p99Millis} - {@code double} - Maximum 99th percentile latency of each query method in milliseconds
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryMethodSettings {
+
+    /**
+     * Number of calls for warm-up on each query method
+     */
+    private int warmUpCalls = 5;
+
+    /**
+     * Number of sampled calls on each query method
+     */
+    private int sampledCalls = 20;
+
+    /**
+     * Maximum 95th percentile latency of each query method in milliseconds
+     */
+    private double p95Millis = 200;
+
+    /**
+     * Maximum 99th percentile latency of each query method in milliseconds
+     */
+    private double p99Millis = 500;
+}
@@ -0,0 +1,55 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTTP request and response pair captured while recording a test run.
+ * <ul>
+ *    <li>{@code method} - {@link String} - HTTP method of the request
+ *    <li>{@code uri} - {@link String} - Path and query of the request URI, without scheme, host and port
+ *    <li>{@code requestBody} - {@code byte[]} - Body of the request
+ *    <li>{@code status} - {@code int} - HTTP status code of the response
+ *    <li>{@code headers} - {@link Map} - Headers of the response, by name
+ *    <li>{@code responseBody} - {@code byte[]} - Body of the response
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordedExchange {
+
+    /**
+     * HTTP method of the request
+     */
+    private String method;
+
+    /**
+     * Path and query of the request URI, without scheme, host and port
+     */
+    private String uri;
+
+    /**
+     * Body of the request
+     */
+    private byte[] requestBody;
+
+    /**
+     * HTTP status code of the response
+     */
+    private int status;
+
+    /**
+     * Headers of the response, by name
+     */
+    private Map<String, List<String>> headers;
+
+    /**
+     * Body of the response
+     */
+    private byte[] responseBody;
+}
@@ -0,0 +1,31 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Settings of a large-volume bulk save test.
+ * <ul>
+ *    <li>{@code documentCount} - {@code int} - Number of generated documents, saved for each batch size
+ *    <li>{@code batchSizes} - {@link List} - Numbers of documents saved by each call, played in order
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaveBulkVolumeSettings {
+
+    /**
+     * Number of generated documents, saved for each batch size
+     */
+    private int documentCount = 100000;
+
+    /**
+     * Numbers of documents saved by each call, played in order
+     */
+    private List<Integer> batchSizes = Arrays.asList(100, 1000, 10000);
+}
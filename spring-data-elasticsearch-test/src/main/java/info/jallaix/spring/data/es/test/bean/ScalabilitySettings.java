@@ -0,0 +1,60 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of a scalability test.
+ * <ul>
+ *    <li>{@code threadCounts} - {@link List} - Numbers of concurrent threads, played in increasing order
+ *    <li>{@code durationMillis} - {@code long} - Load duration in milliseconds for each number of threads
+ *    <li>{@code minEfficiency} - {@code double} - Minimum scaling efficiency of each scenario at each step between two numbers of threads
+ *    <li>{@code failOnInefficiency} - {@code boolean} - Fail the test on inefficient steps, instead of only logging them
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScalabilitySettings {
+
+    /**
+     * Numbers of concurrent threads, played in increasing order
+     */
+    private List<Integer> threadCounts = getDefaultThreadCounts();
+
+    /**
+     * Load duration in milliseconds for each number of threads
+     */
+    private long durationMillis = 5000;
+
+    /**
+     * Minimum scaling efficiency of each scenario at each step between two numbers of threads
+     */
+    private double minEfficiency = 0.5;
+
+    /**
+     * Fail the test on inefficient steps, instead of only logging them
+     */
+    private boolean failOnInefficiency = false;
+
+    /**
+     * Get the default numbers of threads : 1, 2, 4, 8... up to half the number of available processors,
+     * as the embedded Elasticsearch node runs on the same processors as the tested threads.
+     *
+     * @return The default numbers of threads
+     */
+    private static List<Integer> getDefaultThreadCounts() {
+
+        final int maxThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        final List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2)
+            threadCounts.add(threads);
+        threadCounts.add(maxThreads);
+
+        return threadCounts;
+    }
+}
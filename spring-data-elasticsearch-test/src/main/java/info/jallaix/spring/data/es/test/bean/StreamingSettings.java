@@ -0,0 +1,40 @@
+package info.jallaix.spring.data.es.test.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings of a bounded-memory iteration test.
+ * <ul>
+ *    <li>{@code documentCount} - {@code int} - Number of generated documents, added to the fixture before the iteration
+ *    <li>{@code batchSize} - {@code int} - Number of documents saved by each call when generating the documents
+ *    <li>{@code checkpointInterval} - {@code int} - Number of iterated documents between two heap measures
+ *    <li>{@code maxHeapGrowthBytes} - {@code long} - Maximum retained heap growth during the iteration in bytes
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamingSettings {
+
+    /**
+     * Number of generated documents, added to the fixture before the iteration
+     */
+    private int documentCount = 50000;
+
+    /**
+     * Number of documents saved by each call when generating the documents
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Number of iterated documents between two heap measures
+     */
+    private int checkpointInterval = 5000;
+
+    /**
+     * Maximum retained heap growth during the iteration in bytes
+     */
+    private long maxHeapGrowthBytes = 8L * 1024 * 1024;
+}
@@ -1,6 +1,7 @@
 package info.jallaix.spring.data.es.test.fixture;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.List;
 
 /**
@@ -47,4 +48,15 @@ public interface ElasticsearchTestFixture<T> {
      * @return The list of document to store in the index
      */
     List<?> getStoredDocuments();
+
+    /**
+     * Return the arguments of a query method declared on the tested repository, such as {@code findByName}.
+     * Query methods with parameters and without arguments aren't benchmarked.
+     *
+     * @param method The query method
+     * @return The query method arguments, {@code null} if there are none for this method
+     */
+    default Object[] getQueryMethodArguments(Method method) {
+        return null;
+    }
 }
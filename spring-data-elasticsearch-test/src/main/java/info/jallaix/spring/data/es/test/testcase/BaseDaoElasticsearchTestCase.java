@@ -1,21 +1,60 @@
 package info.jallaix.spring.data.es.test.testcase;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import info.jallaix.spring.data.es.test.bean.BulkBackpressureSettings;
+import info.jallaix.spring.data.es.test.bean.BulkVolume;
+import info.jallaix.spring.data.es.test.bean.ConcurrencySettings;
+import info.jallaix.spring.data.es.test.bean.ConcurrentWrites;
+import info.jallaix.spring.data.es.test.bean.SaveBulkVolumeSettings;
+import info.jallaix.spring.data.es.test.bean.QueryMethodSettings;
+import info.jallaix.spring.data.es.test.bean.ScalabilitySettings;
+import info.jallaix.spring.data.es.test.bean.StreamingSettings;
 import info.jallaix.spring.data.es.test.customizer.BaseDaoTestsCustomizer;
 import info.jallaix.spring.data.es.test.customizer.DaoTestsCustomizer;
+import info.jallaix.spring.data.es.test.util.BulkBackpressureReport;
+import info.jallaix.spring.data.es.test.util.ConcurrentWriteReport;
+import info.jallaix.spring.data.es.test.util.HeapPeakMeter;
+import info.jallaix.spring.data.es.test.util.LoadReport;
+import info.jallaix.spring.data.es.test.util.LoadRunner;
+import info.jallaix.spring.data.es.test.util.LoadStatistics;
+import info.jallaix.spring.data.es.test.util.QueryMethodFinder;
+import info.jallaix.spring.data.es.test.util.RetainedHeapMeter;
+import info.jallaix.spring.data.es.test.util.SaveBulkVolumeReport;
+import info.jallaix.spring.data.es.test.util.ScalabilityCurve;
 import info.jallaix.spring.data.es.test.util.TestClientOperations;
 import info.jallaix.spring.data.es.test.util.TestDocumentsLoader;
 import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.index.engine.VersionConflictEngineException;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.threadpool.ThreadPoolStats;
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.GenericTypeResolver;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.ElasticsearchException;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 import org.springframework.util.Assert;
 
 import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -64,9 +103,105 @@ import static org.junit.Assert.*;
  * <li>Deleting a missing document by identifier set doesn't remove this document from the index type.</li>
  * <li>Deleting an existing document by identifier set removes this document from the index type.</li>
  * </ul>
+ * <p/>
+ * The repository must verify the following tests related to <b>pagination crawl</b>, not played by default :
+ * <ul>
+ * <li>Finding all pages of existing documents concurrently returns all these documents, without duplicate or gap.</li>
+ * <li>Finding all sorted pages of existing documents concurrently returns all these documents sorted, without duplicate or gap.</li>
+ * </ul>
+ * <p/>
+ * The repository must verify the following tests related to <b>deep paging</b>, not played by default :
+ * <ul>
+ * <li>Finding sorted pages at increasing offsets doesn't take a latency that grows super-linearly with the offset.</li>
+ * <li>Finding all sorted pages of existing documents returns these documents in the same order as a scroll traversal.</li>
+ * </ul>
+ * The latency test is skipped if the fixture has fewer pages than defined by the {@link #getDeepPagingSettings()} method.
+ * <p/>
+ * The repository must verify the following tests related to <b>concurrent writes</b>, not played by default :
+ * <ul>
+ * <li>
+ * Saving the same document from concurrent threads leaves one of the saved documents in the index.
+ * The saved documents are the stored one and the one defined by the {@link info.jallaix.spring.data.es.test.fixture.ElasticsearchTestFixture#newDocumentToUpdate()} method.
+ * This test is skipped if the document is versioned.
+ * </li>
+ * <li>
+ * Saving the same versioned document from concurrent threads leaves the document with the highest acknowledged version
+ * in the index, and the other writes fail with a version conflict.
+ * This test is skipped if the document isn't versioned.
+ * </li>
+ * </ul>
+ * The numbers of threads are defined by the {@link #getConcurrencySettings()} method, throughputs are logged by number of threads.
+ * <p/>
+ * The repository must verify the following tests related to <b>scalability</b>, not played by default :
+ * <ul>
+ * <li>
+ * Finding a document, testing its existence, finding a sorted page and saving a document from an increasing number
+ * of threads increases the throughput of each of them with an efficiency above the minimum one, at each step.
+ * </li>
+ * </ul>
+ * The numbers of threads and the minimum efficiency are defined by the {@link #getScalabilitySettings()} method,
+ * throughputs and latencies are logged by number of threads.
+ * The test is skipped when fewer than two numbers of threads are defined, as on machines with few processors.
+ * Inefficient steps are only logged, unless the settings ask to fail on them.
+ * <p/>
+ * The repository must verify the following tests related to <b>bulk saving volume</b>, not played by default :
+ * <ul>
+ * <li>
+ * Saving a large number of new documents by batches inserts all these documents in the index, for each batch size.
+ * The documents are generated by the {@link #newVolumeDocument(int)} method.
+ * </li>
+ * </ul>
+ * The number of documents and the batch sizes are defined by the {@link #getSaveBulkVolumeSettings()} method,
+ * throughputs and peak heap usages are logged by batch size.
+ * <p/>
+ * The repository must verify the following tests related to <b>bulk backpressure</b>, not played by default :
+ * <ul>
+ * <li>
+ * Saving documents by batches from concurrent threads while the node bulk thread pool is shrunk surfaces the rejected
+ * documents to the callers : the acknowledged documents are all in the index, the rejected ones aren't,
+ * and the callers see rejections when the thread pool rejects tasks.
+ * </li>
+ * </ul>
+ * The load and the thread pool size are defined by the {@link #getBulkBackpressureSettings()} method,
+ * rejected and completed counts are logged from the node thread pool statistics.
+ * <p/>
+ * The repository must verify the following tests related to <b>bounded-memory iteration</b>, not played by default :
+ * <ul>
+ * <li>
+ * Iterating all documents of an index larger than a result window returns all these documents,
+ * and the retained heap doesn't grow above a bound during the iteration.
+ * The documents added to the fixture are generated by the {@link #newVolumeDocument(int)} method.
+ * </li>
+ * </ul>
+ * The number of documents and the heap growth bound are defined by the {@link #getStreamingSettings()} method,
+ * the test is skipped if explicit garbage collections are disabled.
+ * <p/>
+ * The repository must verify the following tests related to document <b>latency</b> :
+ * <ul>
+ * <li>Calling the repository methods of the budgeted categories stays within the {@link LatencyBudget latency budgets}, not played by default.</li>
+ * <li>
+ * Calling the read query methods declared on the repository interface, such as {@code findByName}, doesn't fail
+ * and stays within a per-method latency budget, not played by default.
+ * The arguments are defined by the {@link info.jallaix.spring.data.es.test.fixture.ElasticsearchTestFixture#getQueryMethodArguments(Method)} method.
+ * The per-method budget is the {@link LatencyBudget} declared for the {@link DaoTestedMethod.QueryMethods} category,
+ * or the one defined by the {@link #getQueryMethodSettings()} method.
+ * This test is kept out of the defaults because it calls every query method for warm-up and sampling,
+ * which adds significant time to each test class : a slow query method is only reported when the category is listed.
+ * </li>
+ * </ul>
  */
 public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R extends ElasticsearchRepository<T, ID>> extends BaseElasticsearchTestCase<T, ID, R> {
 
+    /**
+     * Logger
+     */
+    private static final Logger logger = LoggerFactory.getLogger(BaseDaoElasticsearchTestCase.class);
+
+    /**
+     * JSON mapper copying the documents
+     */
+    private static final ObjectMapper DOCUMENT_MAPPER = new ObjectMapper();
+
     /**
      * Test documents loader
      */
@@ -183,7 +318,7 @@ public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R
         assertEquals(
                 testDocumentsLoader.getLoadedDocumentCount() + 1,
                 testClientOperations.countDocuments(getDocumentMetadata()));
-        assertEquals(toInsert, inserted);
+        assertSameDocument(toInsert, inserted);
 
         // Customizable test function
         getCustomizer().customizeSaveNewDocument(toInsert, inserted);
@@ -202,7 +337,7 @@ public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R
         assertEquals(
                 testDocumentsLoader.getLoadedDocumentCount() + 1,
                 testClientOperations.countDocuments(getDocumentMetadata()));
-        assertEquals(toInsert, inserted);
+        assertSameDocument(toInsert, inserted);
 
         // Customizable test function
         getCustomizer().customizeSaveNewDocument(toInsert, inserted);
@@ -225,7 +360,7 @@ public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R
         assertEquals(
                 testDocumentsLoader.getLoadedDocumentCount(),
                 testClientOperations.countDocuments(getDocumentMetadata()));
-        assertEquals(toUpdate, updated);
+        assertSameDocument(toUpdate, updated);
 
         // Customizable test function
         getCustomizer().customizeSaveExistingDocument(toUpdate, updated, customData);
@@ -248,7 +383,7 @@ public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R
         assertEquals(
                 testDocumentsLoader.getLoadedDocumentCount(),
                 testClientOperations.countDocuments(getDocumentMetadata()));
-        assertEquals(toUpdate, updated);
+        assertSameDocument(toUpdate, updated);
 
         // Customizable test function
         getCustomizer().customizeSaveExistingDocument(toUpdate, updated, customData);
@@ -289,7 +424,7 @@ public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R
         assertEquals(
                 testDocumentsLoader.getLoadedDocumentCount() + 1,
                 testClientOperations.countDocuments(getDocumentMetadata()));
-        assertArrayEquals(toSave.toArray(), saved.toArray());
+        assertSameDocuments(toSave, saved);
 
         // Customizable test function
         getCustomizer().customizeSaveDocuments(toSave, saved, customData);
@@ -314,11 +449,7 @@ public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R
                 (int) this.getTestDocumentsLoader().getLoadedDocumentCount()));
 
         // Repository search
-        List<T> foundList = new ArrayList<>();
-        getRepository().findAll()
-                .forEach(foundList::add);
-
-        assertArrayEquals(initialList.toArray(), foundList.toArray());
+        assertSameDocuments(initialList, getRepository().findAll());
     }
 
     /**
@@ -335,11 +466,7 @@ public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R
                 .collect(Collectors.toList());
 
         // Repository search
-        List<T> foundList = new ArrayList<>();
-        getRepository().findAll(initialKeys)
-                .forEach(foundList::add);
-
-        assertArrayEquals(initialList.toArray(), foundList.toArray());
+        assertSameDocuments(initialList, getRepository().findAll(initialKeys));
     }
 
     /**
@@ -358,11 +485,7 @@ public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R
 
         // Repository search
         Sort sorting = new Sort(Sort.Direction.DESC, getTestFixture().getSortField().getName());
-        List<T> foundList = new ArrayList<>();
-        getRepository().findAll(sorting)
-                .forEach(foundList::add);
-
-        assertArrayEquals(initialList.toArray(), foundList.toArray());
+        assertSameDocuments(initialList, getRepository().findAll(sorting));
     }
 
     /**
@@ -386,11 +509,7 @@ public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R
                 getTestFixture().getPageSize()));
 
         // Repository search
-        List<T> foundList = new ArrayList<>();
-        getRepository().findAll(new PageRequest(0, pageSize))
-                .forEach(foundList::add);
-
-        assertArrayEquals(initialList.toArray(), foundList.toArray());
+        assertSameDocuments(initialList, getRepository().findAll(new PageRequest(0, pageSize)));
 
         // Get typed documents from the index for the last page
         initialList = getCustomizer().customizeFindAllFixture(testClientOperations.findAllDocumentsPaged(
@@ -399,11 +518,7 @@ public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R
                 getTestFixture().getPageSize()));
 
         // Repository search
-        foundList.clear();
-        getRepository().findAll(new PageRequest(nbPages - 1, pageSize))
-                .forEach(foundList::add);
-
-        assertArrayEquals(initialList.toArray(), foundList.toArray());
+        assertSameDocuments(initialList, getRepository().findAll(new PageRequest(nbPages - 1, pageSize)));
     }
 
     /**
@@ -429,11 +544,7 @@ public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R
 
         // Repository search
         Sort sorting = new Sort(Sort.Direction.DESC, getTestFixture().getSortField().getName());
-        List<T> foundList = new ArrayList<>();
-        getRepository().findAll(new PageRequest(0, pageSize, sorting))
-                .forEach(foundList::add);
-
-        assertArrayEquals(initialList.toArray(), foundList.toArray());
+        assertSameDocuments(initialList, getRepository().findAll(new PageRequest(0, pageSize, sorting)));
 
         // Fixture for last page
         initialList = getCustomizer().customizeFindAllFixture(testClientOperations.findAllDocumentsPagedSorted(
@@ -443,11 +554,7 @@ public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R
                 pageSize));
 
         // Repository search
-        foundList.clear();
-        getRepository().findAll(new PageRequest(nbPages - 1, pageSize, sorting))
-                .forEach(foundList::add);
-
-        assertArrayEquals(initialList.toArray(), foundList.toArray());
+        assertSameDocuments(initialList, getRepository().findAll(new PageRequest(nbPages - 1, pageSize, sorting)));
     }
 
     /**
@@ -486,7 +593,7 @@ public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R
         T found = getRepository().findOne(getIdFieldValue(document));
 
         assertNotNull(found);
-        assertEquals(document, found);
+        assertSameDocument(document, found);
     }
 
 
@@ -653,4 +760,853 @@ public abstract class BaseDaoElasticsearchTestCase<T, ID extends Serializable, R
         // Customizable test function
         getCustomizer().customizeDeleteOne(String.class.cast(id));
     }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                     Tests related to pagination crawl                                          */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Finding all pages of existing documents concurrently returns all these documents, without duplicate or gap.
+     * The latency of each page is logged by page number.
+     */
+    @Category(DaoTestedMethod.PaginationCrawl.class)
+    @Test
+    public void crawlAllDocumentsByPage() {
+
+        final int pageSize = getTestFixture().getPageSize();
+        Assert.isTrue(pageSize > 0, "Page size must be positive");
+
+        // Get all typed documents from the index
+        final List<T> initialList = getCustomizer().customizeFindAllFixture(testClientOperations.findAllDocumentsPaged(
+                getDocumentMetadata(),
+                0,
+                (int) testDocumentsLoader.getLoadedDocumentCount()));
+
+        // Repository search of all pages
+        assertPaginationCrawl("unsorted pages", getPageCount(pageSize),
+                page -> getRepository().findAll(new PageRequest(page, pageSize)).getContent(),
+                initialList, false,
+                this::getIdFieldValue, getDocumentComparator()::describeDifferences);
+    }
+
+    /**
+     * Finding all sorted pages of existing documents concurrently returns all these documents sorted, without duplicate or gap.
+     * The latency of each page is logged by page number.
+     */
+    @Category(DaoTestedMethod.PaginationCrawl.class)
+    @Test
+    public void crawlAllDocumentsByPageSorted() {
+
+        final int pageSize = getTestFixture().getPageSize();
+        Assert.isTrue(pageSize > 0, "Page size must be positive");
+
+        // Get all typed documents sorted from the index
+        final List<T> initialList = getCustomizer().customizeFindAllFixture(testClientOperations.findAllDocumentsPagedSorted(
+                getDocumentMetadata(),
+                getTestFixture().getSortField(),
+                0,
+                (int) testDocumentsLoader.getLoadedDocumentCount()));
+
+        // Repository search of all pages
+        final Sort sorting = new Sort(Sort.Direction.DESC, getTestFixture().getSortField().getName());
+        assertPaginationCrawl("sorted pages", getPageCount(pageSize),
+                page -> getRepository().findAll(new PageRequest(page, pageSize, sorting)).getContent(),
+                initialList, true,
+                this::getIdFieldValue, getDocumentComparator()::describeDifferences);
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                       Tests related to deep paging                                             */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Finding sorted pages at increasing offsets doesn't take a latency that grows super-linearly with the offset.
+     * The probe is defined by the {@link #getDeepPagingSettings()} method.
+     */
+    @Category(DaoTestedMethod.DeepPaging.class)
+    @Test
+    public void findDeepPagesSorted() {
+
+        final int pageSize = getTestFixture().getPageSize();
+        Assert.isTrue(pageSize > 0, "Page size must be positive");
+
+        final Sort sorting = new Sort(Sort.Direction.DESC, getTestFixture().getSortField().getName());
+        assertDeepPagingCost("sorted pages", pageSize, page -> getRepository().findAll(new PageRequest(page, pageSize, sorting)).getContent());
+    }
+
+    /**
+     * Finding all sorted pages of existing documents returns these documents in the same order as a scroll traversal.
+     * The scroll traversal doesn't depend on page offsets, it is the candidate replacement for deep pages.
+     */
+    @Category(DaoTestedMethod.DeepPaging.class)
+    @Test
+    public void findAllDocumentsByPageSortedLikeScroll() {
+
+        final int pageSize = getTestFixture().getPageSize();
+        Assert.isTrue(pageSize > 0, "Page size must be positive");
+
+        // Get all typed documents sorted from the index, with a scroll traversal
+        final List<T> scrolledList = getCustomizer().customizeFindAllFixture(testClientOperations.scrollAllDocumentsSorted(
+                getDocumentMetadata(),
+                getTestFixture().getSortField(),
+                pageSize));
+
+        // Repository search of all pages
+        final Sort sorting = new Sort(Sort.Direction.DESC, getTestFixture().getSortField().getName());
+        assertPaginationCrawl("sorted pages against scroll", getPageCount(pageSize),
+                page -> getRepository().findAll(new PageRequest(page, pageSize, sorting)).getContent(),
+                scrolledList, true,
+                this::getIdFieldValue, getDocumentComparator()::describeDifferences);
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                     Tests related to concurrent writes                                         */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Saving the same document from concurrent threads leaves one of the saved documents in the index.
+     * The threads alternately save the stored document and the document to update, without versioning.
+     */
+    @Category(DaoTestedMethod.Concurrency.class)
+    @Test
+    public void saveSameDocumentConcurrently() {
+
+        Assume.assumeFalse("The document is versioned", getDocumentMetadata().hasVersionProperty());
+
+        final T toUpdate = getTestFixture().newDocumentToUpdate();
+        final String id = String.valueOf(getIdFieldValue(toUpdate));
+        final List<T> candidates = Arrays.asList(testClientOperations.findDocument(getDocumentClass(), id), toUpdate);
+
+        final AtomicLong writeCount = new AtomicLong();
+        final ConcurrentWriteReport report = runConcurrentWrites(getConcurrencySettings(), () -> {
+            getRepository().save(copyDocument(candidates.get((int) (writeCount.getAndIncrement() % candidates.size()))));
+            return true;
+        }, threads -> {
+            // The stored document must be one of the saved documents, never a mix of them
+            final T stored = testClientOperations.findDocument(getDocumentClass(), id);
+            assertTrue("Document " + id + " with " + threads + " threads isn't one of the saved documents",
+                    candidates.stream().anyMatch(candidate -> getDocumentComparator().describeDifferences(candidate, stored) == null));
+            assertEquals(testDocumentsLoader.getLoadedDocumentCount(), testClientOperations.countDocuments(getDocumentMetadata()));
+        });
+
+        logger.info("Concurrent write report for {} :\n{}", getClass().getSimpleName(), report.format());
+        assertEquals(report.format(), 0, report.getErrorCount());
+    }
+
+    /**
+     * Saving the same versioned document from concurrent threads leaves the document with the highest acknowledged
+     * version in the index, and the other writes fail with a version conflict.
+     * The threads alternately save the stored document and the document to update, with increasing external versions.
+     */
+    @Category(DaoTestedMethod.Concurrency.class)
+    @Test
+    public void saveSameVersionedDocumentConcurrently() {
+
+        Assume.assumeTrue("The document isn't versioned", getDocumentMetadata().hasVersionProperty());
+
+        final T toUpdate = getTestFixture().newDocumentToUpdate();
+        final String id = String.valueOf(getIdFieldValue(toUpdate));
+        final List<T> candidates = Arrays.asList(testClientOperations.findDocument(getDocumentClass(), id), toUpdate);
+
+        final AtomicLong versionSequence = new AtomicLong(Math.max(0, testClientOperations.getDocumentVersion(getDocumentMetadata(), id)));
+        final Map<Long, T> acknowledged = new ConcurrentHashMap<>();
+        final ConcurrentWriteReport report = runConcurrentWrites(getConcurrencySettings(), () -> {
+
+            final long version = versionSequence.incrementAndGet();
+            final T document = setVersion(copyDocument(candidates.get((int) (version % candidates.size()))), version);
+            try {
+                getRepository().save(document);
+                acknowledged.put(version, document);
+                return true;
+            } catch (RuntimeException e) {
+                if (isVersionConflict(e))
+                    return false;
+                throw e;
+            }
+        }, threads -> {
+            // The stored document must be the one with the highest acknowledged version
+            final long maxVersion = acknowledged.keySet().stream().mapToLong(Long::longValue).max().orElse(-1);
+            assertEquals("Version of document " + id + " with " + threads + " threads",
+                    maxVersion, testClientOperations.getDocumentVersion(getDocumentMetadata(), id));
+            assertSameDocument(acknowledged.get(maxVersion), testClientOperations.findDocument(getDocumentClass(), id));
+        });
+
+        logger.info("Concurrent versioned write report for {} :\n{}", getClass().getSimpleName(), report.format());
+        assertEquals(report.format(), 0, report.getErrorCount());
+
+        // A single thread never conflicts, as its versions increase
+        report.getResults().stream()
+                .filter(result -> result.getThreads() == 1)
+                .forEach(result -> assertEquals("Version conflicts with a single thread", 0, result.getConflicts()));
+
+        // Saving a stale version must fail with a version conflict
+        final long storedVersion = testClientOperations.getDocumentVersion(getDocumentMetadata(), id);
+        try {
+            getRepository().save(setVersion(copyDocument(toUpdate), storedVersion));
+            fail("Saving document " + id + " with the stored version " + storedVersion + " should fail with a version conflict");
+        } catch (RuntimeException e) {
+            if (!isVersionConflict(e))
+                throw e;
+        }
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                       Tests related to scalability                                             */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Calling the repository methods from an increasing number of threads increases the throughput of each method
+     * with an efficiency above the minimum one, at each step.
+     * The called methods are {@code findOne}, {@code exists}, {@code findAll(Pageable)} and {@code save}, when tested.
+     * Inefficient steps only fail the test if {@link ScalabilitySettings#isFailOnInefficiency()} is set.
+     */
+    @Category(DaoTestedMethod.Scalability.class)
+    @Test
+    public void scaleWithThreads() {
+
+        final Map<Class<? extends DaoTestedMethod>, Runnable> scenarios = getLoadScenarios();
+        scenarios.keySet().retainAll(Arrays.asList(
+                DaoTestedMethod.FindOne.class,
+                DaoTestedMethod.Exist.class,
+                DaoTestedMethod.FindAllPageable.class,
+                DaoTestedMethod.Save.class));
+        Assume.assumeFalse("No scalability scenario tested", scenarios.isEmpty());
+        final ScalabilitySettings settings = getScalabilitySettings();
+        Assume.assumeTrue("Fewer than two numbers of threads to compare", settings.getThreadCounts().stream().distinct().count() >= 2);
+
+        final ScalabilityCurve<Class<? extends DaoTestedMethod>> curve = runScalabilityCurve(settings, scenarios);
+        logger.info("Scalability curve for {} :\n{}", getClass().getSimpleName(), curve.format());
+        curve.getReports().forEach((threads, report) ->
+                logger.info("Latencies for {} with {} threads :\n{}", getClass().getSimpleName(), threads, report.format(Class::getSimpleName)));
+
+        assertEquals(curve.format(), 0, curve.getErrorCount());
+        final List<String> inefficientSteps = curve.getInefficientSteps(Class::getSimpleName);
+        if (inefficientSteps.isEmpty())
+            return;
+
+        final String message = "The repository doesn't scale with threads :\n" + String.join("\n", inefficientSteps) + "\n" + curve.format();
+        if (settings.isFailOnInefficiency())
+            fail(message);
+        logger.warn(message);
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                     Tests related to bulk saving volume                                        */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Saving a large number of new documents by batches inserts all these documents in the index, for each batch size.
+     * The generated documents are deleted after each batch size, even if the saving fails.
+     */
+    @Category(DaoTestedMethod.SaveBulkVolume.class)
+    @Test
+    public void saveDocumentsInVolume() {
+
+        final SaveBulkVolumeSettings settings = getSaveBulkVolumeSettings();
+        final List<BulkVolume> results = new ArrayList<>();
+        final Map<Integer, Long> documentCounts = new LinkedHashMap<>();
+        for (int batchSize : settings.getBatchSizes()) {
+
+            final List<String> ids = new ArrayList<>(settings.getDocumentCount());
+            try {
+                results.add(runBulkVolume(settings.getDocumentCount(), batchSize, ids));
+                documentCounts.put(batchSize, testClientOperations.countDocuments(getDocumentMetadata()));
+            } finally {
+                testClientOperations.deleteDocuments(getDocumentMetadata(), ids, Math.max(batchSize, 1000));
+            }
+        }
+
+        final SaveBulkVolumeReport report = new SaveBulkVolumeReport(results);
+        logger.info("Bulk saving volume report for {} :\n{}", getClass().getSimpleName(), report.format());
+        assertEquals(report.format(), 0, report.getErrorCount());
+
+        documentCounts.forEach((batchSize, documentCount) ->
+                assertEquals("Number of documents after saving by batches of " + batchSize + " :\n" + report.format(),
+                        testDocumentsLoader.getLoadedDocumentCount() + settings.getDocumentCount(), (long) documentCount));
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                     Tests related to bulk backpressure                                         */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Saving documents by batches from concurrent threads while the node bulk thread pool is shrunk surfaces
+     * the rejected documents to the callers, and doesn't drop them silently.
+     * The thread pool settings are restored and the generated documents are deleted after the test.
+     */
+    @Category(DaoTestedMethod.BulkBackpressure.class)
+    @Test
+    public void saveDocumentsUnderBulkBackpressure() {
+
+        final BulkBackpressureSettings settings = getBulkBackpressureSettings();
+        final ThreadPool.Info originalPool = testClientOperations.getThreadPoolInfo(ThreadPool.Names.BULK);
+        Assume.assumeNotNull(originalPool);
+
+        final Set<String> generatedIds = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        final Set<String> acknowledgedIds = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final AtomicLong rejectedSaves = new AtomicLong();
+        final AtomicLong rejectedDocuments = new AtomicLong();
+
+        final ThreadPoolStats.Stats poolStatsBefore = testClientOperations.getThreadPoolStats(ThreadPool.Names.BULK);
+        testClientOperations.updateThreadPool(ThreadPool.Names.BULK, settings.getPoolSize(), settings.getQueueSize());
+        try {
+            final LoadReport<String> saveReport = new LoadRunner<String>(settings.getThreads(), TimeUnit.DAYS.toMillis(1), (long) settings.getThreads() * settings.getSavesPerThread())
+                    .run(Collections.singletonMap("save", () -> {
+
+                        final List<String> batchIds = new ArrayList<>(settings.getBatchSize());
+                        final List<T> batch = new ArrayList<>(settings.getBatchSize());
+                        for (int i = 0; i < settings.getBatchSize(); i++) {
+                            final T document = newVolumeDocument(nextIndex.getAndIncrement());
+                            batch.add(document);
+                            batchIds.add(String.valueOf(getIdFieldValue(document)));
+                        }
+                        generatedIds.addAll(batchIds);
+
+                        final Collection<String> rejectedIds = saveOrGetRejected(batch, batchIds);
+                        if (!rejectedIds.isEmpty()) {
+                            rejectedSaves.incrementAndGet();
+                            rejectedDocuments.addAndGet(rejectedIds.size());
+                        }
+                        batchIds.stream().filter(id -> !rejectedIds.contains(id)).forEach(acknowledgedIds::add);
+                    }));
+            final ThreadPoolStats.Stats poolStatsAfter = testClientOperations.getThreadPoolStats(ThreadPool.Names.BULK);
+
+            final BulkBackpressureReport report = new BulkBackpressureReport(saveReport, rejectedSaves.get(), rejectedDocuments.get(),
+                    acknowledgedIds.size(), poolStatsBefore, poolStatsAfter);
+            logger.info("Bulk backpressure report for {} :\n{}", getClass().getSimpleName(), report.format());
+
+            // Failures other than rejections aren't expected
+            assertEquals(report.format(), 0, report.getErrorCount());
+
+            // The thread pool must have been saturated, and its rejections surfaced to the callers
+            assertTrue("The bulk thread pool wasn't saturated, increase the load :\n" + report.format(), report.getPoolRejected() > 0);
+            assertTrue("The bulk thread pool rejected tasks, but no rejection was surfaced to the callers :\n" + report.format(), report.getRejectedSaves() > 0);
+
+            // Acknowledged documents are all stored, rejected ones aren't
+            testClientOperations.refreshIndex(getDocumentMetadata());
+            assertEquals("Number of documents after the rejected saves :\n" + report.format(),
+                    testDocumentsLoader.getLoadedDocumentCount() + acknowledgedIds.size(),
+                    testClientOperations.countDocuments(getDocumentMetadata()));
+
+        } finally {
+            testClientOperations.updateThreadPool(ThreadPool.Names.BULK, originalPool.getMax(),
+                    originalPool.getQueueSize() == null ? -1 : (int) originalPool.getQueueSize().singles());
+            testClientOperations.deleteDocuments(getDocumentMetadata(), new ArrayList<>(generatedIds), 1000);
+        }
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                   Tests related to bounded-memory iteration                                    */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Iterating all documents of an index larger than a result window returns all these documents,
+     * and the retained heap doesn't grow above a bound during the iteration.
+     * The retained heap is measured after a garbage collection, every checkpoint interval, while the result is referenced.
+     * The iterated documents are recorded in structures allocated before the baseline measure, that don't shrink nor grow
+     * during the iteration. The test is skipped if explicit garbage collections are disabled.
+     * The generated documents are deleted after the test.
+     */
+    @Category(DaoTestedMethod.FindAllStreaming.class)
+    @Test
+    public void findAllDocumentsWithBoundedMemory() {
+
+        Assume.assumeFalse("Explicit garbage collections are disabled, the retained heap can't be measured", RetainedHeapMeter.isExplicitGcDisabled());
+
+        final StreamingSettings settings = getStreamingSettings();
+        final List<String> generatedIds = new ArrayList<>(settings.getDocumentCount());
+        final BulkVolume generation = runBulkVolume(settings.getDocumentCount(), settings.getBatchSize(), generatedIds);
+        try {
+            assertEquals(generation.getLatency().getFirstError(), 0, generation.getLatency().getErrorCount());
+            testClientOperations.refreshIndex(getDocumentMetadata());
+
+            // Generation index of each generated document, and the iterated ones, both fixed in size before the baseline
+            final Map<String, Integer> generatedIndexes = new HashMap<>(generatedIds.size() * 2);
+            for (int i = 0; i < generatedIds.size(); i++)
+                generatedIndexes.put(generatedIds.get(i), i);
+            final BitSet iterated = new BitSet(generatedIds.size());
+            final long expectedCount = testDocumentsLoader.getLoadedDocumentCount() + settings.getDocumentCount();
+            final long baselineBytes = RetainedHeapMeter.getRetainedBytes();
+
+            long count = 0;
+            long maxGrowthBytes = 0;
+            for (T document : getRepository().findAll()) {
+                final Integer index = generatedIndexes.get(String.valueOf(getIdFieldValue(document)));
+                if (index != null)
+                    iterated.set(index);
+                if (++count % settings.getCheckpointInterval() == 0)
+                    maxGrowthBytes = Math.max(maxGrowthBytes, RetainedHeapMeter.getRetainedBytes() - baselineBytes);
+            }
+
+            logger.info("Bounded-memory iteration for {} : {} documents, retained heap growth {} KB (bound {} KB)",
+                    getClass().getSimpleName(), count, maxGrowthBytes / 1024, settings.getMaxHeapGrowthBytes() / 1024);
+
+            assertEquals("Number of iterated documents", expectedCount, count);
+            assertEquals("Number of iterated generated documents", generatedIds.size(), iterated.cardinality());
+            assertTrue("Retained heap grew by " + maxGrowthBytes / 1024 + " KB during the iteration of " + count
+                            + " documents, above the bound of " + settings.getMaxHeapGrowthBytes() / 1024 + " KB : the result seems materialized",
+                    maxGrowthBytes <= settings.getMaxHeapGrowthBytes());
+
+        } finally {
+            testClientOperations.deleteDocuments(getDocumentMetadata(), generatedIds, settings.getBatchSize());
+        }
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                     Tests related to document latency                                          */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Calling the repository methods of the budgeted categories stays within the {@link LatencyBudget latency budgets}.
+     */
+    @Category(DaoTestedMethod.Latency.class)
+    @Test
+    public void respectLatencyBudgets() {
+
+        final List<LatencyBudget> budgets = getLatencyBudgets().stream()
+                .filter(budget -> budget.value() != DaoTestedMethod.QueryMethods.class)
+                .collect(Collectors.toList());
+        Assume.assumeFalse("No latency budget declared", budgets.isEmpty());
+        final Map<Class<? extends DaoTestedMethod>, Runnable> scenarios = getLoadScenarios();
+        Assume.assumeFalse("No load scenario tested", scenarios.isEmpty());
+        assertLatencyBudgets(budgets, scenarios);
+    }
+
+    /**
+     * Calling the read query methods declared on the repository interface doesn't fail and stays within a per-method latency budget.
+     * Query methods with parameters are only called if the fixture defines their arguments.
+     * The budget and the calls are defined by the {@link LatencyBudget} declared for the {@link DaoTestedMethod.QueryMethods} category,
+     * or else by the {@link #getQueryMethodSettings()} method.
+     * This test isn't played by default, as it adds the warm-up and sampled calls of every query method to the test class.
+     */
+    @Category(DaoTestedMethod.QueryMethods.class)
+    @Test
+    public void benchmarkQueryMethods() {
+
+        final Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(getClass(), BaseDaoElasticsearchTestCase.class);
+        Assume.assumeNotNull((Object) typeArguments);
+        final List<Method> methods = QueryMethodFinder.findQueryMethods(typeArguments[2]);
+        Assume.assumeFalse("No query method declared", methods.isEmpty());
+
+        final QueryMethodSettings settings = getQueryMethodSettings();
+        getLatencyBudgets().stream()
+                .filter(budget -> budget.value() == DaoTestedMethod.QueryMethods.class)
+                .findFirst()
+                .ifPresent(budget -> {
+                    settings.setWarmUpCalls(budget.warmUpCalls());
+                    settings.setSampledCalls(budget.sampledCalls());
+                    settings.setP95Millis(budget.p95());
+                    settings.setP99Millis(budget.p99());
+                });
+
+        final Map<String, LoadStatistics> statistics = new LinkedHashMap<>();
+        final long start = System.nanoTime();
+        for (Method method : methods) {
+
+            final Object[] arguments = getTestFixture().getQueryMethodArguments(method);
+            if (arguments == null && method.getParameterCount() > 0) {
+                logger.info("Query method {} isn't benchmarked, the fixture defines no argument for it", QueryMethodFinder.describe(method));
+                continue;
+            }
+
+            final LoadStatistics methodStatistics = new LoadStatistics();
+            statistics.put(QueryMethodFinder.describe(method), methodStatistics);
+            for (int i = 0; i < settings.getWarmUpCalls() + settings.getSampledCalls(); i++) {
+
+                final long callStart = System.nanoTime();
+                try {
+                    invokeQueryMethod(method, arguments == null ? new Object[0] : arguments);
+                    if (i >= settings.getWarmUpCalls())
+                        methodStatistics.recordSuccess(System.nanoTime() - callStart);
+                } catch (RuntimeException e) {
+                    methodStatistics.recordError(System.nanoTime() - callStart, e);
+                    break;
+                }
+            }
+        }
+
+        final LoadReport<String> report = new LoadReport<>(statistics, System.nanoTime() - start);
+        logger.info("Query method latencies for {} :\n{}", getClass().getSimpleName(), report.format(method -> method));
+        assertEquals(report.format(method -> method), 0, report.getErrorCount());
+
+        final StringBuilder failures = new StringBuilder();
+        statistics.forEach((method, methodStatistics) -> {
+            final String excess = describeLatencyBudgetExcess(method, methodStatistics, settings.getP95Millis(), settings.getP99Millis());
+            if (excess != null)
+                failures.append(excess);
+        });
+        if (failures.length() > 0)
+            fail(failures.toString());
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                         Sub-class helper methods                                               */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Get the settings of the concurrent write tests. Override this method to change them.
+     *
+     * @return The concurrency settings
+     */
+    protected ConcurrencySettings getConcurrencySettings() {
+        return new ConcurrencySettings();
+    }
+
+    /**
+     * Play a write from concurrent threads, for each number of threads of the settings, then check the index state.
+     * A write returns {@code false} when it is rejected with a version conflict, and throws an exception when it fails.
+     *
+     * @param settings   The concurrency settings
+     * @param write      The write, returning {@code false} on a version conflict
+     * @param stateCheck The check of the index state after the writes, receiving the number of threads
+     * @return The concurrent write report
+     */
+    protected ConcurrentWriteReport runConcurrentWrites(ConcurrencySettings settings, BooleanSupplier write, IntConsumer stateCheck) {
+
+        final List<ConcurrentWrites> results = new ArrayList<>();
+        for (int threads : settings.getThreadCounts()) {
+
+            final AtomicLong conflicts = new AtomicLong();
+            final LoadReport<String> report = new LoadRunner<String>(threads, TimeUnit.DAYS.toMillis(1), (long) threads * settings.getWritesPerThread())
+                    .run(Collections.singletonMap("write", () -> {
+                        if (!write.getAsBoolean())
+                            conflicts.incrementAndGet();
+                    }));
+
+            final LoadStatistics latency = new LoadStatistics();
+            report.getStatistics().values().forEach(latency::add);
+            results.add(new ConcurrentWrites(threads, conflicts.get(), latency, report.getElapsedNanos()));
+
+            stateCheck.accept(threads);
+        }
+
+        return new ConcurrentWriteReport(results);
+    }
+
+    /**
+     * Get the settings of the scalability test. Override this method to change them.
+     *
+     * @return The scalability settings
+     */
+    protected ScalabilitySettings getScalabilitySettings() {
+        return new ScalabilitySettings();
+    }
+
+    /**
+     * Replay scenarios from concurrent threads, for each number of threads of the settings.
+     *
+     * @param settings  The scalability settings
+     * @param scenarios The scenarios to replay, by key
+     * @param <K>       The scenario key type
+     * @return The scalability curve
+     */
+    protected <K> ScalabilityCurve<K> runScalabilityCurve(ScalabilitySettings settings, Map<K, Runnable> scenarios) {
+
+        final Map<Integer, LoadReport<K>> reports = new LinkedHashMap<>();
+        settings.getThreadCounts().stream()
+                .sorted()
+                .distinct()
+                .forEach(threads -> reports.put(threads, new LoadRunner<K>(threads, settings.getDurationMillis(), Long.MAX_VALUE).run(scenarios)));
+
+        return new ScalabilityCurve<>(reports, settings.getMinEfficiency());
+    }
+
+    /**
+     * Get the settings of the bulk saving volume test. Override this method to change them.
+     *
+     * @return The bulk saving volume settings
+     */
+    protected SaveBulkVolumeSettings getSaveBulkVolumeSettings() {
+        return new SaveBulkVolumeSettings();
+    }
+
+    /**
+     * Generate a new document for the bulk saving volume test.
+     * The document is the one defined by the {@link info.jallaix.spring.data.es.test.fixture.ElasticsearchTestFixture#newDocumentToInsert()}
+     * method, with an identifier derived from the index. Override this method for identifiers that aren't strings or integers.
+     *
+     * @param index The index of the generated document, starting from 0
+     * @return The generated document
+     */
+    protected T newVolumeDocument(int index) {
+        return withGeneratedId(getTestFixture().newDocumentToInsert(), "volume-", index);
+    }
+
+    /**
+     * Save generated documents by batches and measure the throughput, the call latency and the peak heap usage.
+     * A failed batch is recorded as an error.
+     *
+     * @param documentCount The number of documents to generate and save
+     * @param batchSize     The number of documents saved by each call
+     * @param ids           The list receiving the identifiers of the generated documents
+     * @return The bulk saving volume result
+     */
+    protected BulkVolume runBulkVolume(int documentCount, int batchSize, List<String> ids) {
+
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("The batch size must be positive");
+
+        final LoadStatistics latency = new LoadStatistics();
+        long elapsedNanos = 0;
+        HeapPeakMeter.reset();
+
+        for (int from = 0; from < documentCount; from += batchSize) {
+
+            final List<T> batch = new ArrayList<>(batchSize);
+            for (int index = from; index < Math.min(from + batchSize, documentCount); index++)
+                batch.add(newVolumeDocument(index));
+            batch.forEach(document -> ids.add(String.valueOf(getIdFieldValue(document))));
+
+            final long callStart = System.nanoTime();
+            try {
+                getRepository().save(batch);
+                latency.recordSuccess(System.nanoTime() - callStart);
+            } catch (RuntimeException e) {
+                latency.recordError(System.nanoTime() - callStart, e);
+            }
+            elapsedNanos += System.nanoTime() - callStart;
+        }
+
+        return new BulkVolume(batchSize, documentCount, latency, elapsedNanos, HeapPeakMeter.getPeakBytes());
+    }
+
+    /**
+     * Get the settings of the bulk backpressure test. Override this method to change them.
+     *
+     * @return The bulk backpressure settings
+     */
+    protected BulkBackpressureSettings getBulkBackpressureSettings() {
+        return new BulkBackpressureSettings();
+    }
+
+    /**
+     * Get the settings of the bounded-memory iteration test. Override this method to change them.
+     *
+     * @return The bounded-memory iteration settings
+     */
+    protected StreamingSettings getStreamingSettings() {
+        return new StreamingSettings();
+    }
+
+    /**
+     * Get the settings of the query method benchmark. Override this method to change them.
+     *
+     * @return The query method settings
+     */
+    protected QueryMethodSettings getQueryMethodSettings() {
+        return new QueryMethodSettings();
+    }
+
+    /**
+     * Call a query method on the tested repository, and read its whole result when it is an iterable or a stream.
+     *
+     * @param method    The query method
+     * @param arguments The query method arguments
+     * @return The query method result
+     */
+    protected Object invokeQueryMethod(Method method, Object[] arguments) {
+
+        final Object result;
+        try {
+            result = method.invoke(getRepository(), arguments);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause());
+        }
+
+        if (result instanceof Iterable)
+            ((Iterable<?>) result).forEach(Objects::requireNonNull);
+        else if (result instanceof Stream)
+            try (Stream<?> stream = (Stream<?>) result) {
+                stream.forEach(Objects::requireNonNull);
+            }
+
+        return result;
+    }
+
+    /**
+     * Save documents in bulk and get the identifiers of the documents rejected by the node thread pools.
+     * Failures that aren't rejections are thrown.
+     *
+     * @param documents The documents to save
+     * @param ids       The identifiers of the documents to save
+     * @return The identifiers of the rejected documents, empty if all documents are acknowledged
+     */
+    protected Collection<String> saveOrGetRejected(List<T> documents, List<String> ids) {
+
+        try {
+            getRepository().save(documents);
+            return Collections.emptySet();
+
+        } catch (ElasticsearchException e) {
+            // Documents rejected by the shard bulk requests
+            final Map<String, String> failedDocuments = e.getFailedDocuments();
+            if (failedDocuments == null || failedDocuments.isEmpty())
+                throw e;
+            if (!failedDocuments.values().stream().allMatch(message -> message.contains(EsRejectedExecutionException.class.getSimpleName())))
+                throw e;
+            return failedDocuments.keySet();
+
+        } catch (RuntimeException e) {
+            // Whole bulk request rejected
+            if (isRejection(e))
+                return ids;
+            throw e;
+        }
+    }
+
+    /**
+     * Indicate if an exception is caused by a thread pool rejection.
+     *
+     * @param e The exception
+     * @return {@code true} if the exception or one of its causes is a thread pool rejection
+     */
+    protected boolean isRejection(Throwable e) {
+
+        for (Throwable cause = e; cause != null; cause = cause.getCause())
+            if (cause instanceof EsRejectedExecutionException)
+                return true;
+
+        return false;
+    }
+
+    /**
+     * Indicate if an exception is caused by a version conflict.
+     *
+     * @param e The exception
+     * @return {@code true} if the exception or one of its causes is a version conflict
+     */
+    protected boolean isVersionConflict(Throwable e) {
+
+        for (Throwable cause = e; cause != null; cause = cause.getCause())
+            if (cause instanceof VersionConflictEngineException)
+                return true;
+
+        return false;
+    }
+
+    /**
+     * Get the repository scenarios, for the tested methods only.
+     * Each scenario calls a repository method with new fixture documents and applies the same assertions as the tests.
+     * The expected documents of the find all scenarios are read from the index once, when the scenarios are built,
+     * and the expected sorted pages once each, the first time they are asserted.
+     * <p/>
+     * The save and index scenarios write to a dedicated generated document, indexed in its final state before the
+     * scenarios are returned : their writes are idempotent and don't change the documents the read scenarios expect,
+     * whatever the order the scenarios are played in.
+     *
+     * @return The repository scenarios, by tested method
+     */
+    protected Map<Class<? extends DaoTestedMethod>, Runnable> getLoadScenarios() {
+
+        // Dedicated write target, already in its final state
+        final T writeTarget = withGeneratedId(getTestFixture().newDocumentToUpdate(), "load-save-", 0);
+        if (testedMethods.contains(DaoTestedMethod.Save.class) || testedMethods.contains(DaoTestedMethod.Index.class))
+            testClientOperations.indexDocument(getDocumentMetadata(), String.valueOf(getIdFieldValue(writeTarget)), writeTarget);
+        final long documentCount = testClientOperations.countDocuments(getDocumentMetadata());
+
+        final int pageSize = getTestFixture().getPageSize();
+        final int totalPages = Math.max(1, (int) Math.ceil((double) documentCount / pageSize));
+        final Sort sorting = new Sort(Sort.Direction.DESC, getTestFixture().getSortField().getName());
+        final List<T> allDocuments = testedMethods.contains(DaoTestedMethod.FindAll.class) ?
+                getCustomizer().customizeFindAllFixture(testClientOperations.findAllDocumentsPaged(getDocumentMetadata(), 0, (int) documentCount)) :
+                Collections.emptyList();
+        final List<T> firstPageDocuments = testedMethods.contains(DaoTestedMethod.FindAllById.class) ?
+                getCustomizer().customizeFindAllFixture(testClientOperations.findAllDocuments(getDocumentMetadata())) :
+                Collections.emptyList();
+        final List<ID> firstPageKeys = firstPageDocuments.stream()
+                .map(this::getIdFieldValue)
+                .collect(Collectors.toList());
+        final List<T> sortedDocuments = testedMethods.contains(DaoTestedMethod.FindAllSorted.class) ?
+                getCustomizer().customizeFindAllFixture(testClientOperations.findAllDocumentsPagedSorted(getDocumentMetadata(), getTestFixture().getSortField(), 0, (int) documentCount)) :
+                Collections.emptyList();
+        final Map<Integer, List<T>> sortedPages = new ConcurrentHashMap<>();
+
+        final Map<Class<? extends DaoTestedMethod>, Runnable> scenarios = new LinkedHashMap<>();
+        scenarios.put(DaoTestedMethod.FindOne.class, () -> {
+            T document = getCustomizer().customizeFindOneFixture(getTestFixture().newExistingDocument());
+            assertSameDocument(document, getRepository().findOne(getIdFieldValue(document)));
+        });
+        scenarios.put(DaoTestedMethod.Exist.class, () -> assertTrue(getRepository().exists(getIdFieldValue(getTestFixture().newDocumentToUpdate()))));
+        scenarios.put(DaoTestedMethod.Count.class, () -> assertEquals(documentCount, getRepository().count()));
+        scenarios.put(DaoTestedMethod.FindAll.class, () -> assertSameDocuments(allDocuments, getRepository().findAll()));
+        scenarios.put(DaoTestedMethod.FindAllById.class, () -> assertSameDocuments(firstPageDocuments, getRepository().findAll(firstPageKeys)));
+        scenarios.put(DaoTestedMethod.FindAllSorted.class, () -> assertSameDocuments(sortedDocuments, getRepository().findAll(sorting)));
+        scenarios.put(DaoTestedMethod.FindAllPageable.class, () -> {
+            int page = ThreadLocalRandom.current().nextInt(totalPages);
+            List<T> expected = sortedPages.computeIfAbsent(page, p -> getCustomizer().customizeFindAllFixture(
+                    testClientOperations.findAllDocumentsPagedSorted(getDocumentMetadata(), getTestFixture().getSortField(), p, pageSize)));
+            assertSameDocuments(expected, getRepository().findAll(new PageRequest(page, pageSize, sorting)));
+        });
+        scenarios.put(DaoTestedMethod.Save.class, () -> {
+            T toUpdate = withGeneratedId(getTestFixture().newDocumentToUpdate(), "load-save-", 0);
+            assertSameDocument(toUpdate, getRepository().save(toUpdate));
+        });
+        scenarios.put(DaoTestedMethod.Index.class, () -> {
+            T toUpdate = withGeneratedId(getTestFixture().newDocumentToUpdate(), "load-save-", 0);
+            assertSameDocument(toUpdate, getRepository().index(toUpdate));
+        });
+        scenarios.keySet().retainAll(testedMethods);
+
+        return scenarios;
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                          Private helper methods                                                */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Copy a document, so that concurrent writes don't share instances.
+     *
+     * @param document The document to copy
+     * @return The document copy
+     */
+    private T copyDocument(T document) {
+        return DOCUMENT_MAPPER.convertValue(document, getDocumentClass());
+    }
+
+    /**
+     * Set the version of a versioned document.
+     *
+     * @param document The versioned document
+     * @param version  The version to set
+     * @return The document
+     */
+    private T setVersion(T document, long version) {
+        return setField(document, getDocumentMetadata().getVersionProperty().getField(), version);
+    }
+
+    /**
+     * Set a field of a document.
+     *
+     * @param document The document
+     * @param field    The field to set
+     * @param value    The field value
+     * @return The document
+     */
+    private T setField(T document, Field field, Object value) {
+
+        field.setAccessible(true);
+        try {
+            field.set(document, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+
+        return document;
+    }
 }
@@ -1,6 +1,15 @@
 package info.jallaix.spring.data.es.test.testcase;
 
+import info.jallaix.spring.data.es.test.bean.DeepPagingSettings;
 import info.jallaix.spring.data.es.test.fixture.ElasticsearchTestFixture;
+import info.jallaix.spring.data.es.test.util.CostCurve;
+import info.jallaix.spring.data.es.test.util.DeepPagingProbe;
+import info.jallaix.spring.data.es.test.util.DeepPagingReport;
+import info.jallaix.spring.data.es.test.util.DocumentComparator;
+import info.jallaix.spring.data.es.test.util.LoadStatistics;
+import info.jallaix.spring.data.es.test.util.PageCrawl;
+import info.jallaix.spring.data.es.test.util.PageCrawler;
+import info.jallaix.spring.data.es.test.util.ResultsComparator;
 import info.jallaix.spring.data.es.test.util.TestDocumentsLoader;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -10,14 +19,25 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.TestName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 
 import java.io.Serializable;
+import java.lang.reflect.Field;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.fail;
 
 /**
  * <p/>
@@ -27,6 +47,16 @@ import java.util.Set;
  */
 public abstract class BaseElasticsearchTestCase<T, ID extends Serializable, R extends ElasticsearchRepository<T, ID>> {
 
+    /**
+     * Logger
+     */
+    private static final Logger logger = LoggerFactory.getLogger(BaseElasticsearchTestCase.class);
+
+    /**
+     * Offset of the numeric identifiers of the generated documents
+     */
+    private static final long GENERATED_ID_OFFSET = 1000000000L;
+
     /**
      * Ability to get the current test name
      */
@@ -147,6 +177,273 @@ public abstract class BaseElasticsearchTestCase<T, ID extends Serializable, R ex
         }
     }
 
+    /**
+     * Set a generated identifier on a document, so that it doesn't collide with the fixture documents.
+     * String identifiers are made of a prefix and an index, numeric identifiers are the index plus a large offset.
+     *
+     * @param document The document
+     * @param prefix   The prefix of a string identifier
+     * @param index    The index of the generated document, starting from 0
+     * @return The document
+     */
+    protected T withGeneratedId(T document, String prefix, int index) {
+
+        final Field idField = documentMetadata.getIdProperty().getField();
+        final Object id;
+        if (idField.getType() == String.class)
+            id = prefix + index;
+        else if (idField.getType() == Long.class || idField.getType() == long.class)
+            id = GENERATED_ID_OFFSET + index;
+        else if (idField.getType() == Integer.class || idField.getType() == int.class)
+            id = (int) GENERATED_ID_OFFSET + index;
+        else
+            throw new IllegalStateException("Unsupported identifier type " + idField.getType().getName() + " for generated documents");
+
+        idField.setAccessible(true);
+        try {
+            idField.set(document, id);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+
+        return document;
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                             Documents comparison                                               */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Get the field-wise comparator of the tested documents.
+     *
+     * @return The document comparator
+     */
+    protected DocumentComparator<T> getDocumentComparator() {
+        return DocumentComparator.forClass(getDocumentClass());
+    }
+
+    /**
+     * Assert that a document is the expected one, field by field.
+     *
+     * @param expected The expected document
+     * @param actual   The actual document
+     */
+    protected void assertSameDocument(T expected, T actual) {
+
+        final String differences = getDocumentComparator().describeDifferences(expected, actual);
+        if (differences != null)
+            fail("Document mismatch (id " + (expected == null ? "n/a" : getIdFieldValue(expected)) + ") : " + differences);
+    }
+
+    /**
+     * Assert that documents are the expected ones, in the same order.
+     * The actual documents are iterated without being copied.
+     *
+     * @param expected The expected documents
+     * @param actual   The actual documents
+     */
+    protected void assertSameDocuments(Iterable<T> expected, Iterable<T> actual) {
+        ResultsComparator.assertSameSequence(expected, actual, this::getIdFieldValue, getDocumentComparator()::describeDifferences);
+    }
+
+    /**
+     * Assert that documents are the expected ones, whatever their order.
+     *
+     * @param expected The expected documents
+     * @param actual   The actual documents
+     */
+    protected void assertSameDocumentsUnordered(Iterable<T> expected, Iterable<T> actual) {
+        ResultsComparator.assertSameElements(expected, actual, this::getIdFieldValue, getDocumentComparator()::describeDifferences);
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                              Latency budgets                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Get the latency budgets of the test class, declared with {@link LatencyBudget} annotations.
+     *
+     * @return The latency budgets
+     */
+    protected List<LatencyBudget> getLatencyBudgets() {
+        return Arrays.asList(getClass().getAnnotationsByType(LatencyBudget.class));
+    }
+
+    /**
+     * Assert that the latency of each budgeted category stays within its budget.
+     * Each category scenario is called for warm-up, then sampled on repeated calls.
+     * All exceeded budgets are reported together, with their latency distribution.
+     *
+     * @param scenarios The scenarios, by tested method category
+     */
+    protected void assertLatencyBudgets(Map<? extends Class<?>, Runnable> scenarios) {
+        assertLatencyBudgets(getLatencyBudgets(), scenarios);
+    }
+
+    /**
+     * Assert that the latency of each budgeted category stays within its budget.
+     * Each category scenario is called for warm-up, then sampled on repeated calls.
+     * All exceeded budgets are reported together, with their latency distribution.
+     *
+     * @param budgets   The latency budgets to verify
+     * @param scenarios The scenarios, by tested method category
+     */
+    protected void assertLatencyBudgets(List<LatencyBudget> budgets, Map<? extends Class<?>, Runnable> scenarios) {
+
+        final StringBuilder failures = new StringBuilder();
+        for (LatencyBudget budget : budgets) {
+
+            final Runnable scenario = scenarios.get(budget.value());
+            if (scenario == null) {
+                failures.append(String.format("No scenario for %s, it may not be tested%n", budget.value().getSimpleName()));
+                continue;
+            }
+
+            // Warm up then sample the scenario
+            for (int i = 0; i < budget.warmUpCalls(); i++)
+                scenario.run();
+            final LoadStatistics statistics = new LoadStatistics();
+            for (int i = 0; i < budget.sampledCalls(); i++) {
+                final long start = System.nanoTime();
+                scenario.run();
+                statistics.recordSuccess(System.nanoTime() - start);
+            }
+
+            final String excess = describeLatencyBudgetExcess(budget.value().getSimpleName(), statistics, budget.p95(), budget.p99());
+            if (excess != null)
+                failures.append(excess);
+        }
+
+        if (failures.length() > 0)
+            fail(failures.toString());
+    }
+
+    /**
+     * Describe how sampled latencies exceed a latency budget.
+     *
+     * @param name       Name of what is budgeted
+     * @param statistics The sampled latencies
+     * @param p95Millis  The maximum 95th percentile latency in milliseconds
+     * @param p99Millis  The maximum 99th percentile latency in milliseconds
+     * @return The description of the exceeded budget with the latency distribution, {@code null} if the budget is respected
+     */
+    protected String describeLatencyBudgetExcess(String name, LoadStatistics statistics, double p95Millis, double p99Millis) {
+
+        final double p95 = statistics.getPercentileMicros(95) / 1000.0;
+        final double p99 = statistics.getPercentileMicros(99) / 1000.0;
+        if (p95 <= p95Millis && p99 <= p99Millis)
+            return null;
+
+        return String.format("Latency budget exceeded for %s : p95 %.3f ms (budget %s), p99 %.3f ms (budget %s)%n%s",
+                name, p95, p95Millis, p99, p99Millis, statistics.formatDistribution());
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                              Pagination crawl                                                  */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Get the maximum number of pages fetched at the same time by a pagination crawl. Override this method to change it.
+     *
+     * @return The maximum number of concurrent page fetches
+     */
+    protected int getPaginationCrawlParallelism() {
+        return 8;
+    }
+
+    /**
+     * Get the number of pages needed to hold all the loaded documents.
+     *
+     * @param pageSize The page size
+     * @return The number of pages
+     */
+    protected int getPageCount(int pageSize) {
+
+        final long documentsCount = getTestDocumentsLoader().getLoadedDocumentCount();
+        return (int) (documentsCount / pageSize + (documentsCount % pageSize == 0 ? 0 : 1));
+    }
+
+    /**
+     * Fetch all pages concurrently and assert that together they hold exactly the expected elements, without duplicate or gap.
+     * The fetch latency of each page is logged, by page number.
+     *
+     * @param label       The crawl label, for logging
+     * @param pageCount   The number of pages to fetch
+     * @param pageFetcher Function fetching the elements of a page from its number, starting from 0
+     * @param expected    The expected elements of all pages
+     * @param ordered     {@code true} if the pages must also hold the elements in the expected order
+     * @param idExtractor Function extracting an element identifier
+     * @param differ      Function describing the differences between two elements with the same identifier
+     * @param <E>         The element type
+     * @return The crawl result
+     */
+    protected <E> PageCrawl<E> assertPaginationCrawl(String label, int pageCount, IntFunction<? extends List<E>> pageFetcher,
+                                                     List<E> expected, boolean ordered,
+                                                     Function<? super E, ?> idExtractor, BiFunction<? super E, ? super E, String> differ) {
+
+        final PageCrawl<E> crawl = new PageCrawler(getPaginationCrawlParallelism()).crawl(pageCount, pageFetcher);
+        logger.info("Pagination crawl of {} ({} pages) :\n{}", label, pageCount, crawl.getLatencyReport().format(page -> "page " + page));
+
+        if (crawl.getLatencyReport().getErrorCount() > 0)
+            fail(crawl.getLatencyReport().getErrorCount() + " of " + pageCount + " pages could not be fetched :\n" + crawl.getLatencyReport().format(page -> "page " + page));
+
+        if (ordered)
+            ResultsComparator.assertSameSequence(expected, crawl.getElements(), idExtractor, differ);
+        else
+            ResultsComparator.assertSameElements(expected, crawl.getElements(), idExtractor, differ);
+
+        return crawl;
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                             Deep paging cost                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Get the settings of the deep paging cost tests. Override this method to change them.
+     *
+     * @return The deep paging settings
+     */
+    protected DeepPagingSettings getDeepPagingSettings() {
+        return new DeepPagingSettings();
+    }
+
+    /**
+     * Measure the page fetch latency at increasing page offsets, and assert that the additional latency of deep pages
+     * doesn't grow super-linearly with their offset. The latency by page offset and the fitted cost curve are logged.
+     * The test is skipped if the fixture has too few pages for a significant offset span,
+     * and a steep curve doesn't fail the test if its fit is too poor to tell the growth from noise.
+     *
+     * @param label       The probe label, for logging
+     * @param pageSize    The page size
+     * @param pageFetcher Function fetching a page from its number, starting from 0
+     * @return The deep paging report
+     */
+    protected DeepPagingReport assertDeepPagingCost(String label, int pageSize, IntConsumer pageFetcher) {
+
+        final DeepPagingSettings settings = getDeepPagingSettings();
+        final int pageCount = getPageCount(pageSize);
+        Assume.assumeTrue("Only " + pageCount + " pages to probe, " + settings.getMinPages() + " needed", pageCount >= settings.getMinPages());
+
+        final DeepPagingReport report = new DeepPagingProbe(settings.getWarmUpCalls(), settings.getSampledCalls())
+                .probe(pageCount, pageSize, pageFetcher);
+        logger.info("Deep paging cost of {} :\n{}", label, report.format());
+
+        final CostCurve costCurve = report.getCostCurve();
+        if (costCurve.isSteeperThan(settings.getMaxExponent(), settings.getMinRSquared()))
+            fail(String.format("Deep page latency of %s grows super-linearly (exponent %.3f, maximum %s) :%n%s",
+                    label, costCurve.getExponent(), settings.getMaxExponent(), report.format()));
+        else if (costCurve.isSteeperThan(settings.getMaxExponent()))
+            logger.warn("Deep page latency of {} looks super-linear, but the fit is too poor to tell it from noise (r2 {}, minimum {})",
+                    label, costCurve.getRSquared(), settings.getMinRSquared());
+
+        return report;
+    }
+
 
     /*----------------------------------------------------------------------------------------------------------------*/
     /*                                            Configurable test system                                            */
@@ -2,41 +2,118 @@ package info.jallaix.spring.data.es.test.testcase;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.fge.jsonpatch.JsonPatchException;
 import com.github.fge.jsonpatch.diff.JsonDiff;
 import com.github.fge.jsonpatch.mergepatch.JsonMergePatch;
+import info.jallaix.spring.data.es.test.bean.BinaryFormatSettings;
+import info.jallaix.spring.data.es.test.bean.CompressionSettings;
+import info.jallaix.spring.data.es.test.bean.ConditionalGetSettings;
+import info.jallaix.spring.data.es.test.bean.EndpointCompression;
+import info.jallaix.spring.data.es.test.bean.FormatMeasure;
+import info.jallaix.spring.data.es.test.bean.LatencyProfile;
+import info.jallaix.spring.data.es.test.bean.LoadSettings;
+import info.jallaix.spring.data.es.test.bean.OpenLoopSettings;
+import info.jallaix.spring.data.es.test.bean.PatchPayload;
 import info.jallaix.spring.data.es.test.bean.ValidationError;
 import info.jallaix.spring.data.es.test.customizer.BaseDaoTestsCustomizer;
 import info.jallaix.spring.data.es.test.customizer.DaoTestsCustomizer;
 import info.jallaix.spring.data.es.test.fixture.ElasticsearchTestFixture;
 import info.jallaix.spring.data.es.test.fixture.RestElasticsearchTestFixture;
+import info.jallaix.spring.data.es.test.util.AllocationCounter;
+import info.jallaix.spring.data.es.test.util.BinaryFormatReport;
+import info.jallaix.spring.data.es.test.util.CompressionReport;
+import info.jallaix.spring.data.es.test.util.HttpRecorder;
+import info.jallaix.spring.data.es.test.util.HttpReplayRequestFactory;
+import info.jallaix.spring.data.es.test.util.ConcurrentAssertions;
+import info.jallaix.spring.data.es.test.util.JsonTreeComparator;
+import info.jallaix.spring.data.es.test.util.LatencyInjectingClient;
+import info.jallaix.spring.data.es.test.util.LatencyProfileReport;
+import info.jallaix.spring.data.es.test.util.LazyResponseEntity;
+import info.jallaix.spring.data.es.test.util.MockMvcRequestFactory;
+import info.jallaix.spring.data.es.test.util.HttpConnectionMetrics;
+import info.jallaix.spring.data.es.test.util.LoadReport;
+import info.jallaix.spring.data.es.test.util.LoadRunner;
+import info.jallaix.spring.data.es.test.util.LoadStatistics;
+import info.jallaix.spring.data.es.test.util.OpenLoopLoadGenerator;
+import info.jallaix.spring.data.es.test.util.PageCrawl;
+import info.jallaix.spring.data.es.test.util.PayloadMetrics;
+import info.jallaix.spring.data.es.test.util.PayloadSizeInterceptor;
+import info.jallaix.spring.data.es.test.util.ResultsComparator;
 import info.jallaix.spring.data.es.test.util.TestClientOperations;
 import org.apache.commons.codec.Charsets;
+import org.apache.http.Header;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Client;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 import org.springframework.data.rest.webmvc.RestMediaTypes;
 import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedResources;
 import org.springframework.hateoas.Resource;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.client.AsyncRestTemplate;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.WebApplicationContext;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
-import java.lang.reflect.Field;
+import java.lang.reflect.Type;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -156,6 +233,123 @@ import static org.junit.Assert.fail;
  * Deleting an entity returns a {@code 204 No Content } HTTP status code it exists and no validation error occurs.
  * The entity to delete is defined by the {@link ElasticsearchTestFixture#newExistingDocument()} method.
  * </li>
+ * </ul>
+ * <p/>
+ * <p/>
+ * The REST web service must verify the following tests related to <b>latency</b>, not played by default :
+ * <ul>
+ * <li>Calling the web service methods of the budgeted categories stays within the {@link LatencyBudget latency budgets}.</li>
+ * </ul>
+ * <p/>
+ * <p/>
+ * The REST web service must verify the following tests related to <b>pagination crawl</b>, not played by default :
+ * <ul>
+ * <li>Getting all entity pages concurrently returns all these entities, without duplicate or gap.</li>
+ * <li>Getting all sorted entity pages concurrently returns all these entities sorted, without duplicate or gap.</li>
+ * </ul>
+ * <p/>
+ * <p/>
+ * The REST web service must verify the following tests related to <b>deep paging</b>, not played by default :
+ * <ul>
+ * <li>Getting sorted entity pages at increasing offsets doesn't take a latency that grows super-linearly with the offset.</li>
+ * <li>Getting all sorted entity pages returns these entities in the same order as a scroll traversal of the index.</li>
+ * </ul>
+ * The latency test is skipped if the fixture has fewer pages than defined by the {@link #getDeepPagingSettings()} method.
+ * <p/>
+ * <p/>
+ * The REST web service must verify the following tests related to <b>conditional requests</b>, not played by default :
+ * <ul>
+ * <li>
+ * Getting an entity again with its ETag in an {@code If-None-Match} header returns a {@code 304 Not Modified} HTTP status code and no body.
+ * The existing entity is defined by the {@link ElasticsearchTestFixture#newExistingDocument()} method.
+ * </li>
+ * <li>
+ * Getting an updated entity with its former ETag in an {@code If-None-Match} header returns a {@code 200 Ok} HTTP status code and a new ETag.
+ * The entity to update is defined by the {@link ElasticsearchTestFixture#newDocumentToUpdate()} method.
+ * </li>
+ * <li>Getting an entity conditionally saves latency and payload compared with a full GET, the savings are logged.</li>
+ * </ul>
+ * These tests are skipped if the web service doesn't return ETags, i.e. if the entity isn't versioned.
+ * <p/>
+ * <p/>
+ * The REST web service must verify the following tests related to <b>compression</b>, not played by default :
+ * <ul>
+ * <li>
+ * Getting entities with compressed responses returns the same content as with uncompressed responses,
+ * and the entity and entities GET assertions pass with compressed responses.
+ * The endpoints are defined by the {@link #getCompressionEndpoints()} method.
+ * The test fails if no response is compressed.
+ * </li>
+ * </ul>
+ * <p/>
+ * <p/>
+ * The REST web service must verify the following tests related to <b>binary formats</b>, not played by default :
+ * <ul>
+ * <li>
+ * Getting an entity in each media type returns equivalent resources.
+ * The existing entity is defined by the {@link ElasticsearchTestFixture#newExistingDocument()} method.
+ * </li>
+ * <li>
+ * Creating an entity in each media type returns equivalent resources.
+ * The entity to create is defined by the {@link ElasticsearchTestFixture#newDocumentToInsert()} method.
+ * </li>
+ * <li>
+ * Updating an entity in each media type returns equivalent resources.
+ * The entity to update is defined by the {@link ElasticsearchTestFixture#newDocumentToUpdate()} method.
+ * </li>
+ * </ul>
+ * The media types are defined by the {@link #getBinaryFormatSettings()} method, payload sizes and serialization
+ * latencies are logged. These tests are skipped if the web service doesn't support a media type.
+ * <p/>
+ * <p/>
+ * The REST web service must verify the following tests related to <b>load</b>, not played by default :
+ * <ul>
+ * <li>
+ * Replaying the tested GET, HEAD, PUT and PATCH scenarios from concurrent workers returns no error.
+ * The load is defined by the {@link #getLoadSettings()} method.
+ * </li>
+ * <li>
+ * Sending a mix of the tested scenarios at a target rate, whatever the response times, returns no error.
+ * The rate and the mix are defined by the {@link #getOpenLoopSettings()} method.
+ * </li>
+ * </ul>
+ * <p/>
+ * <p/>
+ * The REST web service must verify the following tests related to <b>latency injection</b>, not played by default :
+ * <ul>
+ * <li>
+ * Replaying the tested scenarios while Elasticsearch responses are delayed, stalled or throttled returns no error,
+ * the end-to-end latency under each profile is compared with the baseline and logged.
+ * The profiles are defined by the {@link #getLatencyProfiles()} method.
+ * </li>
+ * </ul>
+ * These tests are skipped if the Elasticsearch client of the repositories isn't a {@link LatencyInjectingClient}.
+ * Only the repository calls are delayed, the expected responses are read from the index without latency.
+ * <p/>
+ * <p/>
+ * The payload sizes and the client allocations of the requests sent by the tests can be aggregated by tested method,
+ * not measured by default : the {@code testing.payload-metrics.enabled} property must be set.
+ * At the end of the test class, they are written as a JSON report into the directory defined by the
+ * {@code testing.payload-metrics.dir} system property (default {@code target/payload-metrics}).
+ * <p/>
+ * <p/>
+ * The HTTP exchanges sent by the REST template can be recorded during a run against the server, then replayed
+ * without the server, so that the client-side assertions can be profiled alone. The mode is defined by the
+ * {@code testing.http.recording.mode} property ({@code off}, {@code record} or {@code replay}, default {@code off}),
+ * the recordings are stored by test class in the {@code testing.http.recording.dir} directory
+ * (default {@code src/test/resources/http-recordings}). A replay fails if the recording was made with another fixture.
+ * Requests sent by the non-blocking REST template and by the raw HTTP client aren't recorded.
+ * A replay still loads the fixture into the embedded Elasticsearch node before each test, as the expected
+ * responses are read from the index : only the web service is left out.
+ * <p/>
+ * <p/>
+ * The requests of the REST template can also be sent in-process to a {@link MockMvc} instance built on the web
+ * application context, with the same URLs, media types and assertions but without servlet container nor HTTP stack.
+ * The transport is defined by the {@code testing.http.transport} property ({@code http} or {@code mock_mvc},
+ * default {@code http}). The non-blocking REST template and the raw HTTP client always use HTTP, so the asynchronous
+ * calls, the compression test and the open-loop load test are skipped with the MockMvc transport.
+ * The MockMvc transport only changes where the REST template requests are sent : it doesn't prevent the servlet container
+ * from starting if the test class asks for it, for example with {@code @WebIntegrationTest}.
  */
 @SuppressWarnings("unused")
 public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable, R extends ElasticsearchRepository<T, ID>> extends BaseElasticsearchTestCase<T, ID, R> {
@@ -169,6 +363,107 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
      */
     protected static final MediaType MERGE_PATCH_JSON_UTF8 = new MediaType(RestMediaTypes.MERGE_PATCH_JSON, Collections.singletonMap("charset", Charsets.UTF_8.displayName()));
 
+    /**
+     * Logger
+     */
+    private static final Logger logger = LoggerFactory.getLogger(BaseRestElasticsearchTestCase.class);
+
+    /**
+     * JSON mapper rendering the patch documents, the recording hashes and the link trees
+     */
+    private static final ObjectMapper JSON_TREE_MAPPER = new ObjectMapper();
+
+    /**
+     * Payload metrics of the running test classes, by test class
+     */
+    private static final Map<Class<?>, PayloadMetrics> PAYLOAD_METRICS = new ConcurrentHashMap<>();
+
+    /**
+     * MockMvc instances, by web application context
+     */
+    private static final Map<WebApplicationContext, MockMvc> MOCK_MVCS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * HTTP recorders of the running test classes, by test class
+     */
+    private static final Map<Class<?>, HttpRecorder> HTTP_RECORDERS = new ConcurrentHashMap<>();
+
+    /**
+     * HTTP replay request factories of the running test classes, by test class
+     */
+    private static final Map<Class<?>, HttpReplayRequestFactory> HTTP_REPLAYS = new ConcurrentHashMap<>();
+
+    /**
+     * Pre-computed PATCH request payloads of the running test classes, by test class, then by patch format, entity identifier and patch type.
+     * Each payload is kept with the entity and the patch it was computed from.
+     */
+    private static final Map<Class<?>, Map<String, Map.Entry<List<Object>, PatchPayload<?>>>> PATCH_PAYLOADS = new ConcurrentHashMap<>();
+
+    /**
+     * Executor of the response assertions of the asynchronous calls, so that they don't run on the HTTP client I/O threads
+     */
+    private static final ExecutorService ASYNC_ASSERTION_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "rest-async-assertions");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Pre-rendered expected HAL JSON trees of the running test classes, by test class, then by entity identifier.
+     * Each tree is kept with the entity it was rendered from.
+     */
+    private static final Map<Class<?>, Map<Object, Map.Entry<Object, ObjectNode>>> EXPECTED_RESOURCES = new ConcurrentHashMap<>();
+
+    /**
+     * Release the per-class state and write the HTTP recording of the test class once all its tests are played
+     */
+    @ClassRule
+    public static TestRule httpRecordingWriter = new TestWatcher() {
+
+        @Override
+        protected void finished(Description description) {
+
+            PATCH_PAYLOADS.remove(description.getTestClass());
+            EXPECTED_RESOURCES.remove(description.getTestClass());
+            HTTP_REPLAYS.remove(description.getTestClass());
+            final HttpRecorder recorder = HTTP_RECORDERS.remove(description.getTestClass());
+            if (recorder == null || recorder.isEmpty())
+                return;
+
+            try {
+                recorder.writeJson();
+                logger.info("HTTP recording written to {}", recorder.getFile());
+            } catch (IOException e) {
+                logger.warn("Could not write HTTP recording to " + recorder.getFile(), e);
+            }
+        }
+    };
+
+    /**
+     * Write the payload metrics report of the test class once all its tests are played
+     */
+    @ClassRule
+    public static TestRule payloadMetricsReport = new TestWatcher() {
+
+        @Override
+        protected void finished(Description description) {
+
+            final PayloadMetrics metrics = PAYLOAD_METRICS.remove(description.getTestClass());
+            if (metrics == null || metrics.isEmpty())
+                return;
+
+            final File reportFile = new File(
+                    System.getProperty("testing.payload-metrics.dir", "target/payload-metrics"),
+                    description.getTestClass().getName() + ".json");
+            try {
+                metrics.writeJson(description.getTestClass().getName(), reportFile);
+                logger.info("Payload metrics written to {}", reportFile);
+            } catch (IOException e) {
+                logger.warn("Could not write payload metrics to " + reportFile, e);
+            }
+        }
+    };
+
     /**
      * Default page size for REST read operations
      */
@@ -178,9 +473,33 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
     /**
      * Random server port
      */
-    @Value("${local.server.port}")
+    @Value("${local.server.port:0}")
     private int serverPort;
 
+    /**
+     * Indicate if the payload sizes and the client allocations of the requests are measured
+     */
+    @Value("${testing.payload-metrics.enabled:false}")
+    private boolean payloadMetricsEnabled;
+
+    /**
+     * Transport of the REST template requests
+     */
+    @Value("${testing.http.transport:http}")
+    private String httpTransport;
+
+    /**
+     * HTTP recording mode
+     */
+    @Value("${testing.http.recording.mode:off}")
+    private String httpRecordingMode;
+
+    /**
+     * Directory of the HTTP recordings
+     */
+    @Value("${testing.http.recording.dir:src/test/resources/http-recordings}")
+    private String httpRecordingDirectory;
+
     /**
      * Test client operations
      */
@@ -195,6 +514,56 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
     @Autowired
     private RestTemplate restTemplate;
 
+    /**
+     * HTTP client that doesn't decode compressed responses
+     */
+    @SuppressWarnings("SpringJavaAutowiredMembersInspection")
+    @Autowired(required = false)
+    @Qualifier("rawHttpClient")
+    private CloseableHttpClient rawHttpClient;
+
+    /**
+     * Elasticsearch client of the tested repositories, possibly injecting latency
+     */
+    @SuppressWarnings("SpringJavaAutowiredMembersInspection")
+    @Autowired(required = false)
+    @Qualifier("repositoryElasticsearchClient")
+    private Client repositoryElasticsearchClient;
+
+    /**
+     * Web application context, for in-process requests
+     */
+    @SuppressWarnings("SpringJavaAutowiredMembersInspection")
+    @Autowired(required = false)
+    private WebApplicationContext webApplicationContext;
+
+    /**
+     * Non-blocking REST template for calling server operations concurrently from a few threads
+     */
+    @SuppressWarnings("SpringJavaAutowiredMembersInspection")
+    @Autowired(required = false)
+    private AsyncRestTemplate asyncRestTemplate;
+
+    /**
+     * Interceptor counting the payload bytes exchanged by the REST template
+     */
+    @SuppressWarnings("SpringJavaAutowiredMembersInspection")
+    @Autowired(required = false)
+    private PayloadSizeInterceptor payloadSizeInterceptor;
+
+    /**
+     * Connection metrics of the pooled HTTP client used by the REST template
+     */
+    @SuppressWarnings("SpringJavaAutowiredMembersInspection")
+    @Autowired(required = false)
+    private HttpConnectionMetrics httpConnectionMetrics;
+
+    /**
+     * Number of indexed documents, counted once when the load scenarios are built and {@code null} until then.
+     * The load scenarios don't change the number of documents, so their assertions don't count them on each call.
+     */
+    private volatile Long loadDocumentCount;
+
     /**
      * Tests customizer
      */
@@ -229,6 +598,144 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
     }
 
 
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                         HTTP transport and recording                                           */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Define the transport of the REST template requests, then record its HTTP exchanges or serve them from a recording,
+     * depending on the transport and the recording mode.
+     */
+    @Before
+    public void initRestTemplate() {
+
+        // Send the requests in-process through the existing interceptors
+        if (getHttpTransport() == HttpTransport.MOCK_MVC)
+            restTemplate = copyRestTemplate(new MockMvcRequestFactory(getMockMvc()), restTemplate.getInterceptors());
+
+        switch (getHttpRecordingMode()) {
+
+            case RECORD:    // Record the exchanges around the existing interceptors
+                restTemplate = copyRestTemplate(restTemplate.getRequestFactory(), Collections.singletonList(
+                        HTTP_RECORDERS.computeIfAbsent(getClass(), c -> new HttpRecorder(getFixtureHash(), getHttpRecordingFile()))));
+                break;
+
+            case REPLAY:    // Serve the recorded exchanges to the existing interceptors
+                restTemplate = copyRestTemplate(
+                        HTTP_REPLAYS.computeIfAbsent(getClass(), c -> HttpReplayRequestFactory.load(getHttpRecordingFile(), getFixtureHash())),
+                        restTemplate.getInterceptors());
+                break;
+        }
+    }
+
+    /**
+     * Get the transport of the REST template requests, from the {@code testing.http.transport} property.
+     *
+     * @return The transport of the REST template requests
+     */
+    protected HttpTransport getHttpTransport() {
+        return HttpTransport.valueOf(httpTransport.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Skip the current test if the REST template requests aren't sent over HTTP.
+     * The clients that always use HTTP target the server port, whereas the expected links are built for the transport.
+     *
+     * @param what Description of what needs the HTTP transport
+     */
+    protected void assumeHttpTransport(String what) {
+        Assume.assumeTrue(what + " needs the HTTP transport", getHttpTransport() == HttpTransport.HTTP);
+    }
+
+    /**
+     * Get the MockMvc instance handling the in-process requests, built once for each web application context.
+     * Override this method to register servlet filters, such as a security filter chain.
+     *
+     * @return The MockMvc instance
+     * @throws IllegalStateException If the test application context isn't a web application context
+     */
+    protected MockMvc getMockMvc() {
+
+        if (webApplicationContext == null)
+            throw new IllegalStateException("The MockMvc transport needs a web application context");
+
+        return MOCK_MVCS.computeIfAbsent(webApplicationContext, c -> MockMvcBuilders.webAppContextSetup(c).build());
+    }
+
+    /**
+     * Get the HTTP recording mode, from the {@code testing.http.recording.mode} property.
+     *
+     * @return The HTTP recording mode
+     */
+    protected HttpRecordingMode getHttpRecordingMode() {
+        return HttpRecordingMode.valueOf(httpRecordingMode.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Get the HTTP recording file of the test class.
+     *
+     * @return The HTTP recording file
+     */
+    protected File getHttpRecordingFile() {
+        return new File(httpRecordingDirectory, getClass().getName() + ".json");
+    }
+
+    /**
+     * Get the hash of the test fixtures : stored documents, documents to insert, update and find, sort field and page sizes,
+     * then object for patch, resource type and expected validation errors.
+     * A recording can only be replayed with the fixtures it was made with.
+     *
+     * @return The SHA-256 hash of the fixtures, in hexadecimal
+     */
+    protected String getFixtureHash() {
+
+        final ElasticsearchTestFixture<T> fixture = getTestFixture();
+        final RestElasticsearchTestFixture<T> restFixture = getRestTestFixture();
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(JSON_TREE_MAPPER.writeValueAsBytes(Arrays.asList(
+                    fixture.getStoredDocuments(),
+                    fixture.newDocumentToInsert(),
+                    fixture.newDocumentToUpdate(),
+                    fixture.newExistingDocument(),
+                    String.valueOf(fixture.getSortField()),
+                    fixture.getPageSize(),
+                    defaultPageSize,
+                    restFixture.newObjectForPatch(),
+                    String.valueOf(restFixture.getResourceType().getType()),
+                    toHashedEntries(restFixture.getExpectedValidationErrorsOnCreate()),
+                    toHashedEntries(restFixture.getExpectedValidationErrorsOnUpdate()),
+                    toHashedEntries(restFixture.getExpectedValidationErrorsOnPatch()),
+                    toHashedEntries(restFixture.getExpectedValidationErrorsOnDelete()))));
+
+            final StringBuilder hash = new StringBuilder();
+            for (byte b : digest)
+                hash.append(String.format("%02x", b));
+            return hash.toString();
+
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Serialize the entries of a fixture map for hashing, keys included as JSON, in an order that doesn't depend on the map.
+     *
+     * @param map The fixture map, may be {@code null}
+     * @return The sorted JSON entries
+     * @throws JsonProcessingException If an entry can't be serialized
+     */
+    private List<String> toHashedEntries(Map<?, ?> map) throws JsonProcessingException {
+
+        final List<String> entries = new ArrayList<>();
+        if (map != null)
+            for (Map.Entry<?, ?> entry : map.entrySet())
+                entries.add(JSON_TREE_MAPPER.writeValueAsString(Arrays.asList(entry.getKey(), entry.getValue())));
+        Collections.sort(entries);
+
+        return entries;
+    }
+
+
     /*----------------------------------------------------------------------------------------------------------------*/
     /*                                            Tests customization                                                 */
     /*----------------------------------------------------------------------------------------------------------------*/
@@ -291,8 +798,12 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
     @Category(RestTestedMethod.Create.class)
     @Test
     public void createInvalidEntity() {
+
+        final Map<String, Runnable> scenarios = new LinkedHashMap<>();
         getRestTestFixture().getExpectedValidationErrorsOnCreate()
-                .forEach((entity, errors) -> postEntity(entity, HttpStatus.BAD_REQUEST, true, errors));
+                .forEach((entity, errors) -> scenarios.put("POST #" + scenarios.size() + " " + entity, () -> postEntity(entity, HttpStatus.BAD_REQUEST, true, errors)));
+
+        assertValidationScenarios(scenarios);
     }
 
     /**
@@ -450,7 +961,12 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
     @Category(RestTestedMethod.Update.class)
     @Test
     public void updateInvalidEntity() {
-        getRestTestFixture().getExpectedValidationErrorsOnUpdate().forEach((entity, errors) -> putEntity(entity, HttpStatus.BAD_REQUEST, true, errors));
+
+        final Map<String, Runnable> scenarios = new LinkedHashMap<>();
+        getRestTestFixture().getExpectedValidationErrorsOnUpdate()
+                .forEach((entity, errors) -> scenarios.put("PUT #" + scenarios.size() + " " + entity, () -> putEntity(entity, HttpStatus.BAD_REQUEST, true, errors)));
+
+        assertValidationScenarios(scenarios);
     }
 
     /**
@@ -515,8 +1031,14 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
     public void patchInvalidEntity() {
 
         T entity = getTestFixture().newExistingDocument();
-        getRestTestFixture().getExpectedValidationErrorsOnPatch().forEach((patch, errors) -> patchEntity(true, entity, patch, HttpStatus.BAD_REQUEST, true, errors, false));
-        getRestTestFixture().getExpectedValidationErrorsOnPatch().forEach((patch, errors) -> patchEntity(false, entity, patch, HttpStatus.BAD_REQUEST, true, errors, false));
+        final Map<String, Runnable> scenarios = new LinkedHashMap<>();
+        getRestTestFixture().getExpectedValidationErrorsOnPatch().forEach((patch, errors) -> {
+            final int index = scenarios.size() / 2;
+            scenarios.put("PATCH (merge) #" + index + " " + patch, () -> patchEntity(true, entity, patch, HttpStatus.BAD_REQUEST, true, errors, false));
+            scenarios.put("PATCH (json) #" + index + " " + patch, () -> patchEntity(false, entity, patch, HttpStatus.BAD_REQUEST, true, errors, false));
+        });
+
+        assertValidationScenarios(scenarios);
     }
 
     /**
@@ -596,8 +1118,12 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
     @Category(RestTestedMethod.Delete.class)
     @Test
     public void deleteInvalidEntity() {
+
+        final Map<String, Runnable> scenarios = new LinkedHashMap<>();
         getRestTestFixture().getExpectedValidationErrorsOnDelete()
-                .forEach((entity, errors) -> deleteEntity(getIdFieldValue(entity), HttpStatus.BAD_REQUEST, true, errors));
+                .forEach((entity, errors) -> scenarios.put("DELETE #" + scenarios.size() + " " + entity, () -> deleteEntity(getIdFieldValue(entity), HttpStatus.BAD_REQUEST, true, errors)));
+
+        assertValidationScenarios(scenarios);
     }
 
     /**
@@ -612,60 +1138,379 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
 
 
     /*----------------------------------------------------------------------------------------------------------------*/
-    /*                                         Sub-class helper methods                                               */
+    /*                                         Tests related to latency                                               */
     /*----------------------------------------------------------------------------------------------------------------*/
 
     /**
-     * Call the REST web service to create an entity.
-     *
-     * @param entity         Entity data to create
-     * @param expectedStatus Expected HTTP status to assert
-     * @param expectedError  {@code true} if an error is expected
-     * @return The created entity resource
+     * Calling the web service methods of the budgeted categories stays within the {@link LatencyBudget latency budgets}.
      */
-    @SuppressWarnings("unused")
-    protected ResponseEntity<Resource<T>> postEntity(T entity, HttpStatus expectedStatus, boolean expectedError) {
-        return postEntity(entity, expectedStatus, expectedError, null);
+    @Category(RestTestedMethod.Latency.class)
+    @Test
+    public void respectLatencyBudgets() {
+
+        Assume.assumeFalse("No latency budget declared", getLatencyBudgets().isEmpty());
+        final Map<Class<? extends RestTestedMethod>, Runnable> scenarios = getLoadScenarios();
+        Assume.assumeFalse("No load scenario tested", scenarios.isEmpty());
+        assertLatencyBudgets(scenarios);
     }
 
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                     Tests related to pagination crawl                                          */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
     /**
-     * Call the REST web service to create an entity.
-     *
-     * @param entity         Entity data to create
-     * @param expectedStatus Expected HTTP status to assert
-     * @param expectedError  {@code true} if an error is expected
-     * @param expectedErrors Expected validation errors to assert
-     * @return The created entity resource
+     * Getting all entity pages concurrently returns all these entities, without duplicate or gap.
+     * The latency of each page is logged by page number.
      */
-    protected ResponseEntity<Resource<T>> postEntity(T entity, HttpStatus expectedStatus, boolean expectedError, List<ValidationError> expectedErrors) {
+    @Category(RestTestedMethod.PaginationCrawl.class)
+    @Test
+    public void crawlEntitiesPaged() {
+        crawlEntities(false);
+    }
 
-        final HttpEntity<?> httpEntity = convertToHttpEntity(entity);           // Define Hal+Json HTTP entity
+    /**
+     * Getting all sorted entity pages concurrently returns all these entities sorted, without duplicate or gap.
+     * The latency of each page is logged by page number.
+     */
+    @Category(RestTestedMethod.PaginationCrawl.class)
+    @Test
+    public void crawlEntitiesPagedSorted() {
+        crawlEntities(true);
+    }
 
-        try {
-            // Send a POST request
-            final ResponseEntity<Resource<T>> responseEntity =
-                    restTemplate.exchange(
-                            getWebServiceUrl(),
-                            HttpMethod.POST,
-                            httpEntity,
-                            getRestTestFixture().getResourceType());
 
-            if (expectedError)  // No exception thrown whereas one is expected
-                fail("Should return a " + expectedStatus.value() + " " + expectedStatus.name() + " response");
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                       Tests related to deep paging                                             */
+    /*----------------------------------------------------------------------------------------------------------------*/
 
-            else {  // No exception is expected, verify the expected HTTP status code and response body then return the response
-                assertExistingBody(expectedStatus, false, responseEntity, entity);
+    /**
+     * Getting sorted entity pages at increasing offsets doesn't take a latency that grows super-linearly with the offset.
+     * The probe is defined by the {@link #getDeepPagingSettings()} method.
+     */
+    @Category(RestTestedMethod.DeepPaging.class)
+    @Test
+    public void findDeepEntityPagesSorted() {
 
-                return responseEntity;
-            }
-        }
+        final HttpEntity<?> httpEntity = convertToHttpEntity(null);             // Define Hal+Json HTTP entity
+
+        assertDeepPagingCost("sorted entity pages", getTestFixture().getPageSize(), page -> {
+            final ResponseEntity<PagedResources<Resource<T>>> responseEntity =
+                    exchangeMeasured(RestTestedMethod.FindAllPageable.class, () -> restTemplate.exchange(
+                            getEntitiesUrl(true, page),
+                            HttpMethod.GET,
+                            httpEntity,
+                            getRestTestFixture().getPagedResourcesType()));
+
+            assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
+        });
+    }
+
+    /**
+     * Getting all sorted entity pages returns these entities in the same order as a scroll traversal of the index.
+     * The scroll traversal doesn't depend on page offsets, it is the candidate replacement for deep pages.
+     */
+    @Category(RestTestedMethod.DeepPaging.class)
+    @Test
+    public void findEntitiesPagedSortedLikeScroll() {
+
+        crawlEntities(true, getCustomizer().customizeFindAllFixture(testClientOperations.scrollAllDocumentsSorted(
+                getDocumentMetadata(),
+                getTestFixture().getSortField(),
+                getTestFixture().getPageSize())));
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                   Tests related to conditional requests                                        */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Getting an entity again with its ETag in an {@code If-None-Match} header returns a {@code 304 Not Modified} HTTP status code and no body.
+     * The existing entity is defined by the {@link ElasticsearchTestFixture#newExistingDocument()} method.
+     */
+    @Category(RestTestedMethod.ConditionalGet.class)
+    @Test
+    public void getEntityNotModified() {
+
+        final T entity = getTestFixture().newExistingDocument();
+        final String eTag = getEntityETag(entity);
+
+        final ResponseEntity<String> responseEntity = getEntityConditionally(entity, eTag);
+        assertThat(responseEntity.getStatusCode(), is(HttpStatus.NOT_MODIFIED));           // Verify HTTP status code
+        assertThat(responseEntity.getBody(), is(nullValue()));                             // Verify there is no body
+    }
+
+    /**
+     * Getting an updated entity with its former ETag in an {@code If-None-Match} header returns a {@code 200 Ok} HTTP status code and a new ETag.
+     * The entity to update is defined by the {@link ElasticsearchTestFixture#newDocumentToUpdate()} method.
+     */
+    @Category(RestTestedMethod.ConditionalGet.class)
+    @Test
+    public void getUpdatedEntityModified() {
+
+        final T entity = getTestFixture().newDocumentToUpdate();
+        final String eTag = getEntityETag(entity);
+
+        putEntity(entity, HttpStatus.OK, false);
+
+        final ResponseEntity<String> responseEntity = getEntityConditionally(entity, eTag);
+        assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));                     // Verify HTTP status code
+        assertThat(responseEntity.getBody(), is(notNullValue()));                          // Verify the entity is sent again
+        assertThat(responseEntity.getHeaders().getETag(), is(not(eTag)));                  // Verify the tag is invalidated
+    }
+
+    /**
+     * Getting an entity conditionally saves latency and payload compared with a full GET.
+     * The savings are logged, the sampling is defined by the {@link #getConditionalGetSettings()} method.
+     * The existing entity is defined by the {@link ElasticsearchTestFixture#newExistingDocument()} method.
+     */
+    @Category(RestTestedMethod.ConditionalGet.class)
+    @Test
+    public void getEntityConditionallySavings() {
+
+        final ConditionalGetSettings settings = getConditionalGetSettings();
+        final T entity = getTestFixture().newExistingDocument();
+        final String eTag = getEntityETag(entity);
+
+        // Warm up both requests
+        for (int i = 0; i < settings.getWarmUpCalls(); i++) {
+            getEntityConditionally(entity, null);
+            getEntityConditionally(entity, eTag);
+        }
+
+        // Sample both requests alternately
+        final Map<String, LoadStatistics> statistics = new LinkedHashMap<>();
+        statistics.put("full GET", new LoadStatistics());
+        statistics.put("conditional GET", new LoadStatistics());
+        long fullBytes = 0, conditionalBytes = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < settings.getSampledCalls(); i++) {
+
+            long callStart = System.nanoTime();
+            final ResponseEntity<String> fullResponse = getEntityConditionally(entity, null);
+            statistics.get("full GET").recordSuccess(System.nanoTime() - callStart);
+
+            callStart = System.nanoTime();
+            final ResponseEntity<String> conditionalResponse = getEntityConditionally(entity, eTag);
+            statistics.get("conditional GET").recordSuccess(System.nanoTime() - callStart);
+
+            assertThat(conditionalResponse.getStatusCode(), is(HttpStatus.NOT_MODIFIED));
+            fullBytes += fullResponse.getBody() == null ? 0 : fullResponse.getBody().getBytes(StandardCharsets.UTF_8).length;
+            conditionalBytes += conditionalResponse.getBody() == null ? 0 : conditionalResponse.getBody().getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        logger.info("Conditional GET savings for {} (body bytes : full {}, conditional {}) :\n{}",
+                getClass().getSimpleName(), fullBytes, conditionalBytes,
+                new LoadReport<>(statistics, System.nanoTime() - start).format(String::valueOf));
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                       Tests related to compression                                             */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Getting entities with compressed responses returns the same content as with uncompressed responses,
+     * and at least one endpoint response is actually compressed.
+     * The endpoints are defined by the {@link #getCompressionEndpoints()} method.
+     * Response sizes and latencies, with and without compression, are logged by endpoint.
+     * The entity and entities GET assertions are then played again with compressed responses.
+     */
+    @Category(RestTestedMethod.Compression.class)
+    @Test
+    public void getEntitiesCompressed() {
+
+        final CompressionSettings settings = getCompressionSettings();
+        final CompressionReport report = runCompression(settings, getCompressionEndpoints());
+        logger.info("Compression report for {} :\n{}", getClass().getSimpleName(), report.format());
+
+        assertTrue("No response is compressed, is server.compression.enabled set ?\n" + report.format(),
+                report.getEndpoints().stream().anyMatch(endpoint -> !"identity".equals(endpoint.getContentEncoding())));
+
+        // Play the GET assertions again around the existing interceptors, the HTTP client decoding the compressed responses
+        restTemplate = copyRestTemplate(restTemplate.getRequestFactory(), Collections.singletonList((request, body, execution) -> {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, settings.getAcceptEncoding());
+            return execution.execute(request, body);
+        }));
+
+        getEntity(getTestFixture().newExistingDocument(), HttpStatus.OK, false);
+        getEntities(false);
+        getEntities(true);
+        getEntities(false, 0);
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                     Tests related to binary formats                                            */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Getting an entity in each media type returns equivalent resources.
+     * Payload sizes and serialization latencies are logged by media type.
+     */
+    @Category(RestTestedMethod.BinaryFormats.class)
+    @Test
+    public void getEntityBinaryFormats() {
+
+        final T entity = getTestFixture().newExistingDocument();
+        final BinaryFormatReport report = runBinaryFormats(getBinaryFormatSettings(), RestTestedMethod.FindOne.class,
+                HttpMethod.GET, getWebServiceUrl() + "/" + getIdFieldValue(entity), null,
+                HttpStatus.OK, convertToResource(getTestFixture().newExistingDocument()), null);
+
+        logger.info("Binary format report for {} :\n{}", getClass().getSimpleName(), report.format());
+    }
+
+    /**
+     * Creating an entity in each media type returns equivalent resources.
+     * The created entity is deleted after each call, so that the next call doesn't create a duplicate.
+     * Payload sizes and serialization latencies are logged by media type.
+     */
+    @Category(RestTestedMethod.BinaryFormats.class)
+    @Test
+    public void postEntityBinaryFormats() {
+
+        final T entity = getTestFixture().newDocumentToInsert();
+        final BinaryFormatReport report = runBinaryFormats(getBinaryFormatSettings(), RestTestedMethod.Create.class,
+                HttpMethod.POST, getWebServiceUrl().toString(), entity,
+                HttpStatus.CREATED, convertToResource(getTestFixture().newDocumentToInsert()),
+                response -> deleteCreatedDocument(entity, response));
+
+        logger.info("Binary format report for {} :\n{}", getClass().getSimpleName(), report.format());
+    }
+
+    /**
+     * Updating an entity in each media type returns equivalent resources.
+     * Payload sizes and serialization latencies are logged by media type.
+     */
+    @Category(RestTestedMethod.BinaryFormats.class)
+    @Test
+    public void putEntityBinaryFormats() {
+
+        final T entity = getTestFixture().newDocumentToUpdate();
+        final BinaryFormatReport report = runBinaryFormats(getBinaryFormatSettings(), RestTestedMethod.Update.class,
+                HttpMethod.PUT, getWebServiceUrl() + "/" + getIdFieldValue(entity), entity,
+                HttpStatus.OK, convertToResource(getTestFixture().newDocumentToUpdate()), null);
+
+        logger.info("Binary format report for {} :\n{}", getClass().getSimpleName(), report.format());
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                          Tests related to load                                                 */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Replaying the tested GET, HEAD, PUT and PATCH scenarios from concurrent workers returns no error.
+     * The load is defined by the {@link #getLoadSettings()} method.
+     */
+    @Category(RestTestedMethod.Load.class)
+    @Test
+    public void loadEntities() {
+
+        final Map<Class<? extends RestTestedMethod>, Runnable> scenarios = getLoadScenarios();
+        Assume.assumeFalse("No load scenario tested", scenarios.isEmpty());
+        resetConnectionMetrics();
+        final LoadReport<Class<? extends RestTestedMethod>> report = runLoad(getLoadSettings(), scenarios);
+
+        logger.info("Load report for {} :\n{}", getClass().getSimpleName(), report.format(Class::getSimpleName));
+        logConnectionMetrics("Load");
+        assertThat(report.format(Class::getSimpleName), report.getErrorCount(), is(0L));
+    }
+
+    /**
+     * Sending a mix of the tested scenarios at a target rate, whatever the response times, returns no error.
+     * The rate and the mix are defined by the {@link #getOpenLoopSettings()} method.
+     * Latencies are measured from the intended send times.
+     * The PATCH scenario writes to a dedicated document, so it doesn't change the entities the GET scenarios expect.
+     */
+    @Category(RestTestedMethod.Load.class)
+    @Test
+    public void openLoopLoadEntities() {
+
+        assumeHttpTransport("The open-loop load test");
+        final Map<Class<? extends RestTestedMethod>, Runnable> scenarios = getLoadScenarios();
+        Assume.assumeFalse("No load scenario tested", scenarios.isEmpty());
+        resetConnectionMetrics();
+        final LoadReport<Class<? extends RestTestedMethod>> report = runOpenLoopLoad(getOpenLoopSettings(), scenarios);
+
+        logger.info("Open-loop load report for {} :\n{}", getClass().getSimpleName(), report.format(Class::getSimpleName));
+        logConnectionMetrics("Open-loop load");
+        assertThat(report.format(Class::getSimpleName), report.getErrorCount(), is(0L));
+    }
+
+    /**
+     * Replaying the tested scenarios while Elasticsearch responses are delayed, stalled or throttled returns no error.
+     * The end-to-end latency under each profile of the {@link #getLatencyProfiles()} method is compared with the baseline and logged.
+     */
+    @Category(RestTestedMethod.LatencyInjection.class)
+    @Test
+    public void loadEntitiesUnderLatencyProfiles() {
+
+        Assume.assumeTrue("The Elasticsearch client doesn't inject latency", repositoryElasticsearchClient instanceof LatencyInjectingClient);
+        final Map<Class<? extends RestTestedMethod>, Runnable> scenarios = getLoadScenarios();
+        Assume.assumeFalse("No load scenario tested", scenarios.isEmpty());
+
+        final LatencyProfileReport<Class<? extends RestTestedMethod>> report =
+                runLoadUnderLatencyProfiles(getLoadSettings(), scenarios, getLatencyProfiles());
+
+        logger.info("Latency injection report for {} :\n{}", getClass().getSimpleName(), report.format(Class::getSimpleName));
+        assertThat(report.format(Class::getSimpleName), report.getErrorCount(), is(0L));
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                         Sub-class helper methods                                               */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Call the REST web service to create an entity.
+     *
+     * @param entity         Entity data to create
+     * @param expectedStatus Expected HTTP status to assert
+     * @param expectedError  {@code true} if an error is expected
+     * @return The created entity resource
+     */
+    @SuppressWarnings("unused")
+    protected ResponseEntity<Resource<T>> postEntity(T entity, HttpStatus expectedStatus, boolean expectedError) {
+        return postEntity(entity, expectedStatus, expectedError, null);
+    }
+
+    /**
+     * Call the REST web service to create an entity.
+     *
+     * @param entity         Entity data to create
+     * @param expectedStatus Expected HTTP status to assert
+     * @param expectedError  {@code true} if an error is expected
+     * @param expectedErrors Expected validation errors to assert
+     * @return The created entity resource
+     */
+    protected ResponseEntity<Resource<T>> postEntity(T entity, HttpStatus expectedStatus, boolean expectedError, List<ValidationError> expectedErrors) {
+
+        final HttpEntity<?> httpEntity = convertToHttpEntity(entity);           // Define Hal+Json HTTP entity
+
+        try {
+            // Send a POST request
+            final ResponseEntity<Resource<T>> responseEntity =
+                    exchangeMeasured(RestTestedMethod.Create.class, () -> restTemplate.exchange(
+                            getWebServiceUrl(),
+                            HttpMethod.POST,
+                            httpEntity,
+                            getRestTestFixture().getResourceType()));
+
+            if (expectedError)  // No exception thrown whereas one is expected
+                fail("Should return a " + expectedStatus.value() + " " + expectedStatus.name() + " response");
+
+            else {  // No exception is expected, verify the expected HTTP status code and response body then return the response
+                assertExistingBody(expectedStatus, false, responseEntity, entity);
+
+                return responseEntity;
+            }
+        }
 
         // The POST request results in an error response
         catch (HttpStatusCodeException e) {
-
-            assertThat(e.getStatusCode(), is(expectedStatus));  // Verify the expected HTTP status code
-            if (expectedErrors != null)                         // Verify that validation errors are the expected ones
-                assertThat(findValidationErrors(e).toArray(), is(expectedErrors.toArray()));
+            assertErrorResponse(e, expectedStatus, expectedErrors);
         }
 
         return null;
@@ -674,6 +1519,9 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
     /**
      * Call the REST web service to get an entity.
      *
+     * In {@link #isJsonTreeComparison() JSON tree comparison mode}, the call is delegated to {@link #getEntityAsJson}
+     * and the raw response body is only decoded if the caller reads the body of the returned response.
+     *
      * @param expectedEntity Expected entity to be found
      * @param expectedStatus Expected HTTP status to assert
      * @param expectedError  {@code true} if an error is expected
@@ -682,6 +1530,9 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
     @SuppressWarnings("unused")
     protected ResponseEntity<Resource<T>> getEntity(T expectedEntity, HttpStatus expectedStatus, boolean expectedError) {
 
+        if (isJsonTreeComparison())
+            return decodeJsonTreeResponse(getEntityAsJson(expectedEntity, expectedStatus, expectedError), getRestTestFixture().getResourceType().getType());
+
         // Define Hal+Json HTTP entity
         final HttpEntity<?> httpEntity = convertToHttpEntity(null);
 
@@ -690,11 +1541,11 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
         try {
             // Send a GET request
             final ResponseEntity<Resource<T>> responseEntity =
-                    restTemplate.exchange(
+                    exchangeMeasured(RestTestedMethod.FindOne.class, () -> restTemplate.exchange(
                             expectedResource.getId().getHref(),
                             HttpMethod.GET,
                             httpEntity,
-                            getRestTestFixture().getResourceType());
+                            getRestTestFixture().getResourceType()));
 
             if (expectedError)  // No exception thrown whereas one is expected
                 fail("Should return a " + expectedStatus.value() + " " + expectedStatus.name() + " response");
@@ -702,7 +1553,7 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
             else {  // No exception is expected, verify the expected HTTP status code and response body then return the response
                 assertThat(responseEntity, is(notNullValue()));
                 assertThat(responseEntity.getStatusCode(), is(expectedStatus));
-                assertThat(responseEntity.getBody(), is(expectedResource));
+                assertSameResource(expectedResource, responseEntity.getBody());
                 getCustomizer().assertResponse(responseEntity);
 
                 return responseEntity;
@@ -742,6 +1593,8 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
 
     /**
      * Call the REST web service to get all entities.
+     * In {@link #isJsonTreeComparison() JSON tree comparison mode}, the call is delegated to {@link #getEntitiesAsJson}
+     * and the raw response body is only decoded if the caller reads the body of the returned response.
      *
      * @param sorted         {@code true} if entities are sorted
      * @param page           {@code null} if no page is request, else a page number starting from 0
@@ -749,49 +1602,98 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
      */
     protected ResponseEntity<PagedResources<Resource<T>>> getEntities(boolean sorted, Integer page) {
 
-        final HttpEntity<?> httpEntity = convertToHttpEntity(null);             // Define Hal+Json HTTP entity
-
-        // Get user-defined sort field and page size
-        final Field sortField = getTestFixture().getSortField();
-        final int pageSize = (page == null) ? defaultPageSize : getTestFixture().getPageSize(); // Spring Data REST always get paged resources
+        if (isJsonTreeComparison())
+            return decodeJsonTreeResponse(getEntitiesAsJson(sorted, page), getRestTestFixture().getPagedResourcesType().getType());
 
-        // Build GET request parameters for sorting and paging
-        final String urlParams =
-                (!sorted && page == null ? "" : "?" +
-                        (!sorted ? "&" : "sort=" + sortField.getName() + ",desc" +
-                                (page == null ? "" : "&")) +
-                        (page == null ? "" : "page=" + page + "&size=" + pageSize)
-                );
+        final HttpEntity<?> httpEntity = convertToHttpEntity(null);             // Define Hal+Json HTTP entity
 
         // Define the fixture for entities comparison
-        final List<T> documents = getCustomizer().customizeFindAllFixture(sorted ?
-                testClientOperations.findAllDocumentsPagedSorted(getDocumentMetadata(), sortField, (page != null) ? page : 0, pageSize) :
-                testClientOperations.findAllDocumentsPaged(getDocumentMetadata(), (page != null) ? page : 0, pageSize));
-        final List<Resource<T>> fixture = documents
-                .stream()
-                .map(this::convertToResource)
-                .collect(Collectors.toList());
-
-        // Define the fixture for metadata comparison
-        final long totalDocuments = this.getTestDocumentsLoader().getLoadedDocumentCount();
-        PagedResources.PageMetadata metadata = new PagedResources.PageMetadata(pageSize, (page == null ? 0 : page), totalDocuments);
+        final List<T> documents = findExpectedEntities(sorted, page);
 
         // Send a GET request
         final ResponseEntity<PagedResources<Resource<T>>> responseEntity =
-                restTemplate.exchange(
-                        getWebServiceUrl() + urlParams,
+                exchangeMeasured(page == null ? RestTestedMethod.FindAll.class : RestTestedMethod.FindAllPageable.class, () -> restTemplate.exchange(
+                        getEntitiesUrl(sorted, page),
                         HttpMethod.GET,
                         httpEntity,
-                        getRestTestFixture().getPagedResourcesType());
+                        getRestTestFixture().getPagedResourcesType()));
 
         // Assert the entity response matches the expected one
-        assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));                      // Verify HTTP status code
-        assertThat(responseEntity.getBody().getMetadata(), is(metadata));                   // Verify body metadata
-        assertThat(responseEntity.getBody().getContent().toArray(), is(fixture.toArray())); // Verify body content
-        if (totalDocuments > documents.size())                                              // Verify body links
-            assertThat(responseEntity.getBody().getLinks().toArray(), is(getPagedResourcesLinks(sorted, page).toArray()));
-        else
-            assertThat(responseEntity.getBody().getLinks().toArray(), is(getResourcesLinks().toArray()));
+        assertEntitiesResponse(responseEntity, documents, sorted, page);
+
+        return responseEntity;
+    }
+
+    /**
+     * Call the REST web service to get an entity, and compare the raw response body with the expected JSON tree.
+     * The response body isn't deserialized into a resource.
+     *
+     * @param expectedEntity Expected entity to be found
+     * @param expectedStatus Expected HTTP status to assert
+     * @param expectedError  {@code true} if an error is expected
+     * @return The raw response
+     */
+    protected ResponseEntity<String> getEntityAsJson(T expectedEntity, HttpStatus expectedStatus, boolean expectedError) {
+
+        final T expectedDocument = getCustomizer().customizeFindOneFixture(expectedEntity);
+
+        try {
+            // Send a GET request
+            final ResponseEntity<String> responseEntity =
+                    exchangeMeasured(RestTestedMethod.FindOne.class, () -> restTemplate.exchange(
+                            getWebServiceUrl() + "/" + getIdFieldValue(expectedDocument),
+                            HttpMethod.GET,
+                            convertToJsonTreeHttpEntity(),
+                            String.class));
+
+            if (expectedError)  // No exception thrown whereas one is expected
+                fail("Should return a " + expectedStatus.value() + " " + expectedStatus.name() + " response");
+
+            else {  // No exception is expected, verify the expected HTTP status code and response body then return the response
+                assertThat(responseEntity, is(notNullValue()));
+                assertThat(responseEntity.getStatusCode(), is(expectedStatus));
+                assertSameJsonTree(renderExpectedResource(expectedDocument), responseEntity.getBody());
+                getCustomizer().assertResponse(responseEntity);
+
+                return responseEntity;
+            }
+        }
+
+        // The GET request results in an error response
+        catch (HttpStatusCodeException e) {
+            if (expectedError)
+                assertThat(e.getStatusCode(), is(HttpStatus.NOT_FOUND));    // Verify the expected HTTP status code
+            else
+                fail("An unexpected exception was thrown.\n" + e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Call the REST web service to get all entities, and compare the raw response body with the expected JSON tree.
+     * The response body isn't deserialized into paged resources.
+     *
+     * @param sorted {@code true} if entities are sorted
+     * @param page   {@code null} if no page is request, else a page number starting from 0
+     * @return The raw response
+     */
+    protected ResponseEntity<String> getEntitiesAsJson(boolean sorted, Integer page) {
+
+        // Define the fixture for entities comparison
+        final List<T> documents = findExpectedEntities(sorted, page);
+
+        // Send a GET request
+        final ResponseEntity<String> responseEntity =
+                exchangeMeasured(page == null ? RestTestedMethod.FindAll.class : RestTestedMethod.FindAllPageable.class, () -> restTemplate.exchange(
+                        getEntitiesUrl(sorted, page),
+                        HttpMethod.GET,
+                        convertToJsonTreeHttpEntity(),
+                        String.class));
+
+        // Assert the raw response matches the expected JSON tree
+        assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
+        assertSameJsonTree(renderExpectedPagedResources(documents, sorted, page), responseEntity.getBody());
         getCustomizer().assertResponse(responseEntity);
 
         return responseEntity;
@@ -813,11 +1715,11 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
         try {
             // Send a HEAD request
             final ResponseEntity<?> responseEntity =
-                    restTemplate.exchange(
+                    exchangeMeasured(RestTestedMethod.Exist.class, () -> restTemplate.exchange(
                             expectedResource.getId().getHref(),
                             HttpMethod.HEAD,
                             httpEntity,
-                            getRestTestFixture().getResourceType());
+                            getRestTestFixture().getResourceType()));
 
             assertMissingBody(expectedStatus, expectedError, responseEntity);
         }
@@ -837,11 +1739,11 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
 
         // Send a HEAD request
         final ResponseEntity<?> responseEntity =
-                restTemplate.exchange(
+                exchangeMeasured(RestTestedMethod.Exist.class, () -> restTemplate.exchange(
                         getWebServiceUrl(),
                         HttpMethod.HEAD,
                         httpEntity,
-                        getRestTestFixture().getPagedResourcesType());
+                        getRestTestFixture().getPagedResourcesType()));
 
         // Assert the entity response matches the expected one
         assertThat(responseEntity, is(notNullValue()));
@@ -896,21 +1798,18 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
         try {
             // Send a PUT request
             final ResponseEntity<Resource<T>> responseEntity =
-                    restTemplate.exchange(
+                    exchangeMeasured(RestTestedMethod.Update.class, () -> restTemplate.exchange(
                             getWebServiceUrl() + (id == null ? "" : "/" + id),
                             HttpMethod.PUT,
                             httpEntity,
-                            getRestTestFixture().getResourceType());
+                            getRestTestFixture().getResourceType()));
 
             assertExistingBody(expectedStatus, expectedError, responseEntity, entity);
         }
 
         // The PUT request results in an error response
         catch (HttpStatusCodeException e) {
-
-            assertThat(e.getStatusCode(), is(expectedStatus));  // Verify the expected HTTP status code
-            if (expectedErrors != null)                         // Verify that validation errors are the expected ones
-                assertThat(findValidationErrors(e).toArray(), is(expectedErrors.toArray()));
+            assertErrorResponse(e, expectedStatus, expectedErrors);
         }
 
         return null;
@@ -942,45 +1841,13 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
      * @param emptyBody      To send an empty body
      * @return The updated entity resource
      */
-    @SuppressWarnings("unchecked")
     protected ResponseEntity<Resource<T>> patchEntity(boolean merge, T entity, Object patch, HttpStatus expectedStatus, boolean expectedError, List<ValidationError> expectedErrors, boolean emptyBody) {
 
-        final T targetEntity;
-
-        // Define Patch+Json HTTP entity
-        final HttpEntity<?> httpEntity;
-        if (entity == null || emptyBody) {
-            // Set empty body to the HTTP entity
-            httpEntity = convertToHttpEntity(null, merge ? MERGE_PATCH_JSON_UTF8 : JSON_PATCH_JSON_UTF8);
-            targetEntity = null;
-        } else {
-            final ObjectMapper mapper = new ObjectMapper(); // JSON converter
-
-            // Convert the object for patching to a JSON merge patch
-            JsonNode jsonMerge = mapper.valueToTree(patch);
-
-            // Get entity to patch in JSON format
-            final JsonNode jsonSource = mapper.valueToTree(entity);
-
-            // Get the target entity the PATCH request must match by applying the JSON merge patch to the source entity
-            final JsonNode jsonTarget;
-            try {
-                jsonTarget = JsonMergePatch.fromJson(jsonMerge).apply(jsonSource);
-            } catch (JsonPatchException e) {
-                throw new RuntimeException(e);
-            }
-            try {
-                targetEntity = mapper.treeToValue(jsonTarget, (Class<T>) getDocumentMetadata().getType());
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e);
-            }
-
-            // Get a patch operation in Json merge patch or Json patch format
-            final JsonNode jsonPatchNode = merge ? jsonMerge : JsonDiff.asJson(jsonSource, jsonTarget);
-
-            // Set the patch value to the HTTP entity's body
-            httpEntity = convertToHttpEntity(jsonPatchNode.toString(), merge ? MERGE_PATCH_JSON_UTF8 : JSON_PATCH_JSON_UTF8);
-        }
+        // Define Patch+Json HTTP entity, with a pre-computed patch document
+        final PatchPayload<T> payload = (entity == null || emptyBody) ? null : getPatchPayload(merge, entity, patch);
+        final HttpEntity<?> httpEntity = (payload == null) ?
+                convertToHttpEntity(null, merge ? MERGE_PATCH_JSON_UTF8 : JSON_PATCH_JSON_UTF8) :  // Set empty body to the HTTP entity
+                convertToHttpEntity(payload.getBody(), payload.getContentType());
 
         // Identifier of the entity resource to update
         final ID id = (entity != null) ? getIdFieldValue(entity) : null;
@@ -988,56 +1855,851 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
         try {
             // Send a PATCH request
             final ResponseEntity<Resource<T>> responseEntity =
-                    restTemplate.exchange(
+                    exchangeMeasured(RestTestedMethod.Patch.class, () -> restTemplate.exchange(
                             getWebServiceUrl() + (id == null ? "" : "/" + id),
                             HttpMethod.PATCH,
                             httpEntity,
-                            getRestTestFixture().getResourceType());
+                            getRestTestFixture().getResourceType()));
 
-            assertExistingBody(expectedStatus, expectedError, responseEntity, targetEntity);
+            assertExistingResource(expectedStatus, expectedError, responseEntity, payload == null ? null : payload.getExpectedResource());
         }
         // The PATCH request results in an error response
         catch (HttpStatusCodeException e) {
-
-            assertThat(e.getStatusCode(), is(expectedStatus));  // Verify the expected HTTP status code
-            if (expectedErrors != null)                         // Verify that validation errors are the expected ones
-                assertThat(findValidationErrors(e).toArray(), is(expectedErrors.toArray()));
+            assertErrorResponse(e, expectedStatus, expectedErrors);
         }
 
         return null;
     }
 
     /**
-     * Call the REST web service to delete.
+     * Get the PATCH request payload of a patch applied to an entity, with the resource the PATCH response must match.
+     * The payload is cached by test class, patch format, entity identifier and patch type : it is computed again only if
+     * the entity or the patch isn't equal to the ones the cached payload was computed from.
      *
-     * @param id             Entity identifier to delete
-     * @param expectedStatus Expected HTTP status to assert
-     * @param expectedError  {@code true} if an error is expected
-     * @param expectedErrors Expected validation errors to assert
+     * @param merge  {@code true} to use JSON Merge Patch format and {@code false} to use JSON Patch format
+     * @param entity Entity data to patch
+     * @param patch  Object with some getters matching the {@link T} entity getters, used for patching these fields
+     * @return The PATCH request payload
      */
-    protected void deleteEntity(ID id, HttpStatus expectedStatus, boolean expectedError, List<ValidationError> expectedErrors) {
+    @SuppressWarnings("unchecked")
+    protected PatchPayload<T> getPatchPayload(boolean merge, T entity, Object patch) {
+
+        final String key = merge + "|" + getIdFieldValue(entity) + "|" + (patch == null ? null : patch.getClass().getName());
+        final List<Object> source = Arrays.asList(entity, patch);
+        final Map<String, Map.Entry<List<Object>, PatchPayload<?>>> payloads = PATCH_PAYLOADS.computeIfAbsent(getClass(), testClass -> new ConcurrentHashMap<>());
+
+        final Map.Entry<List<Object>, PatchPayload<?>> cached = payloads.get(key);
+        if (cached != null && cached.getKey().equals(source))
+            return (PatchPayload<T>) cached.getValue();
+
+        final PatchPayload<T> payload = computePatchPayload(merge, entity, patch);
+        payloads.put(key, new AbstractMap.SimpleImmutableEntry<>(source, payload));
+
+        return payload;
+    }
+
+    /**
+     * Call the REST web service to delete.
+     *
+     * @param id             Entity identifier to delete
+     * @param expectedStatus Expected HTTP status to assert
+     * @param expectedError  {@code true} if an error is expected
+     * @param expectedErrors Expected validation errors to assert
+     */
+    protected void deleteEntity(ID id, HttpStatus expectedStatus, boolean expectedError, List<ValidationError> expectedErrors) {
 
         final HttpEntity<?> httpEntity = convertToHttpEntity(null);             // Define Hal+Json HTTP entity
 
         try {
             // Send a DELETE request
             final ResponseEntity<?> responseEntity =
-                    restTemplate.exchange(
+                    exchangeMeasured(RestTestedMethod.Delete.class, () -> restTemplate.exchange(
                             getWebServiceUrl() + (id == null ? "" : "/" + id),
                             HttpMethod.DELETE,
                             httpEntity,
-                            getRestTestFixture().getResourceType());
+                            getRestTestFixture().getResourceType()));
 
             assertMissingBody(expectedStatus, expectedError, responseEntity);
         }
 
         // The DELETE request results in an error response
         catch (HttpStatusCodeException e) {
+            assertErrorResponse(e, expectedStatus, expectedErrors);
+        }
+    }
+
+    /**
+     * Call the REST web service to create an entity, without blocking the calling thread.
+     * The returned future completes exceptionally with an {@link AssertionError} cause if the response doesn't match the expected one.
+     *
+     * @param entity         Entity data to create
+     * @param expectedStatus Expected HTTP status to assert
+     * @param expectedError  {@code true} if an error is expected
+     * @param expectedErrors Expected validation errors to assert
+     * @return A future of the created entity resource, {@code null} if an error response is returned
+     */
+    protected CompletableFuture<ResponseEntity<Resource<T>>> postEntityAsync(T entity, HttpStatus expectedStatus, boolean expectedError, List<ValidationError> expectedErrors) {
+
+        // Send a POST request
+        return toCompletableFuture(
+                getAsyncRestTemplate().exchange(
+                        getWebServiceUrl().toString(),
+                        HttpMethod.POST,
+                        convertToHttpEntity(entity),
+                        getRestTestFixture().getResourceType()))
+                .handleAsync((responseEntity, error) -> {
+                    final HttpStatusCodeException httpException = findHttpStatusCodeException(error);
+                    if (httpException != null) {
+                        assertErrorResponse(httpException, expectedStatus, expectedErrors);
+                        return null;
+                    }
+
+                    assertExistingBody(expectedStatus, expectedError, responseEntity, entity);
+                    return responseEntity;
+                }, ASYNC_ASSERTION_EXECUTOR);
+    }
+
+    /**
+     * Call the REST web service to get an entity, without blocking the calling thread.
+     * The returned future completes exceptionally with an {@link AssertionError} cause if the response doesn't match the expected one.
+     *
+     * @param expectedEntity Expected entity to be found
+     * @param expectedStatus Expected HTTP status to assert
+     * @param expectedError  {@code true} if an error is expected
+     * @return A future of the found entity resource, {@code null} if an error response is returned
+     */
+    protected CompletableFuture<ResponseEntity<Resource<T>>> getEntityAsync(T expectedEntity, HttpStatus expectedStatus, boolean expectedError) {
+
+        final Resource<T> expectedResource = convertToResource(getCustomizer().customizeFindOneFixture(expectedEntity));
+
+        // Send a GET request
+        return toCompletableFuture(
+                getAsyncRestTemplate().exchange(
+                        expectedResource.getId().getHref(),
+                        HttpMethod.GET,
+                        convertToHttpEntity(null),
+                        getRestTestFixture().getResourceType()))
+                .handleAsync((responseEntity, error) -> {
+                    final HttpStatusCodeException httpException = findHttpStatusCodeException(error);
+                    if (httpException != null) {
+                        if (expectedError)
+                            assertThat(httpException.getStatusCode(), is(HttpStatus.NOT_FOUND));    // Verify the expected HTTP status code
+                        else
+                            fail("An unexpected exception was thrown.\n" + httpException);
+                        return null;
+                    }
+
+                    if (expectedError)  // No exception thrown whereas one is expected
+                        fail("Should return a " + expectedStatus.value() + " " + expectedStatus.name() + " response");
+
+                    assertThat(responseEntity, is(notNullValue()));
+                    assertThat(responseEntity.getStatusCode(), is(expectedStatus));
+                    assertSameResource(expectedResource, responseEntity.getBody());
+                    getCustomizer().assertResponse(responseEntity);
+
+                    return responseEntity;
+                }, ASYNC_ASSERTION_EXECUTOR);
+    }
+
+    /**
+     * Call the REST web service to get all entities, without blocking the calling thread.
+     * The returned future completes exceptionally with an {@link AssertionError} cause if the response doesn't match the expected one.
+     *
+     * @param sorted {@code true} if entities are sorted
+     * @param page   {@code null} if no page is request, else a page number starting from 0
+     * @return A future of the found entity resources
+     */
+    protected CompletableFuture<ResponseEntity<PagedResources<Resource<T>>>> getEntitiesAsync(boolean sorted, Integer page) {
+
+        // Define the fixture for entities comparison before sending the request
+        final List<T> documents = findExpectedEntities(sorted, page);
+
+        // Send a GET request
+        return toCompletableFuture(
+                getAsyncRestTemplate().exchange(
+                        getEntitiesUrl(sorted, page),
+                        HttpMethod.GET,
+                        convertToHttpEntity(null),
+                        getRestTestFixture().getPagedResourcesType()))
+                .thenApplyAsync(responseEntity -> {
+                    assertEntitiesResponse(responseEntity, documents, sorted, page);
+                    return responseEntity;
+                }, ASYNC_ASSERTION_EXECUTOR);
+    }
+
+    /**
+     * Call the REST web service to update, without blocking the calling thread.
+     * The returned future completes exceptionally with an {@link AssertionError} cause if the response doesn't match the expected one.
+     *
+     * @param entity         Entity data to update
+     * @param expectedStatus Expected HTTP status to assert
+     * @param expectedError  {@code true} if an error is expected
+     * @param expectedErrors Expected validation errors to assert
+     * @return A future of the updated entity resource, {@code null} if an error response is returned
+     */
+    protected CompletableFuture<ResponseEntity<Resource<T>>> putEntityAsync(T entity, HttpStatus expectedStatus, boolean expectedError, List<ValidationError> expectedErrors) {
+
+        // Identifier of the entity resource to update
+        final ID id = (entity != null) ? getIdFieldValue(entity) : null;
+
+        // Send a PUT request
+        return toCompletableFuture(
+                getAsyncRestTemplate().exchange(
+                        getWebServiceUrl() + (id == null ? "" : "/" + id),
+                        HttpMethod.PUT,
+                        convertToHttpEntity(entity),
+                        getRestTestFixture().getResourceType()))
+                .handleAsync((responseEntity, error) -> {
+                    final HttpStatusCodeException httpException = findHttpStatusCodeException(error);
+                    if (httpException != null) {
+                        assertErrorResponse(httpException, expectedStatus, expectedErrors);
+                        return null;
+                    }
+
+                    assertExistingBody(expectedStatus, expectedError, responseEntity, entity);
+                    return responseEntity;
+                }, ASYNC_ASSERTION_EXECUTOR);
+    }
+
+    /**
+     * Call the REST web service to partially update, without blocking the calling thread.
+     * The returned future completes exceptionally with an {@link AssertionError} cause if the response doesn't match the expected one.
+     *
+     * @param merge          {@code true} to use JSON Merge Patch format and {@code false} to use JSON Patch format
+     * @param entity         Entity data to patch
+     * @param patch          Object with some getters matching the {@link T} entity getters, used for patching these fields
+     * @param expectedStatus Expected HTTP status to assert
+     * @param expectedError  {@code true} if an error is expected
+     * @param expectedErrors Expected validation errors to assert
+     * @return A future of the updated entity resource, {@code null} if an error response is returned
+     */
+    protected CompletableFuture<ResponseEntity<Resource<T>>> patchEntityAsync(boolean merge, T entity, Object patch, HttpStatus expectedStatus, boolean expectedError, List<ValidationError> expectedErrors) {
+
+        // Define Patch+Json HTTP entity, with a pre-computed patch document
+        final PatchPayload<T> payload = (entity == null) ? null : getPatchPayload(merge, entity, patch);
+        final HttpEntity<?> httpEntity = (payload == null) ?
+                convertToHttpEntity(null, merge ? MERGE_PATCH_JSON_UTF8 : JSON_PATCH_JSON_UTF8) :  // Set empty body to the HTTP entity
+                convertToHttpEntity(payload.getBody(), payload.getContentType());
+
+        // Identifier of the entity resource to update
+        final ID id = (entity != null) ? getIdFieldValue(entity) : null;
+
+        // Send a PATCH request
+        return toCompletableFuture(
+                getAsyncRestTemplate().exchange(
+                        getWebServiceUrl() + (id == null ? "" : "/" + id),
+                        HttpMethod.PATCH,
+                        httpEntity,
+                        getRestTestFixture().getResourceType()))
+                .handleAsync((responseEntity, error) -> {
+                    final HttpStatusCodeException httpException = findHttpStatusCodeException(error);
+                    if (httpException != null) {
+                        assertErrorResponse(httpException, expectedStatus, expectedErrors);
+                        return null;
+                    }
+
+                    assertExistingResource(expectedStatus, expectedError, responseEntity, payload == null ? null : payload.getExpectedResource());
+                    return responseEntity;
+                }, ASYNC_ASSERTION_EXECUTOR);
+    }
+
+    /**
+     * Call the REST web service to delete, without blocking the calling thread.
+     * The returned future completes exceptionally with an {@link AssertionError} cause if the response doesn't match the expected one.
+     *
+     * @param id             Entity identifier to delete
+     * @param expectedStatus Expected HTTP status to assert
+     * @param expectedError  {@code true} if an error is expected
+     * @param expectedErrors Expected validation errors to assert
+     * @return A future completed when the response is verified
+     */
+    protected CompletableFuture<Void> deleteEntityAsync(ID id, HttpStatus expectedStatus, boolean expectedError, List<ValidationError> expectedErrors) {
+
+        // Send a DELETE request
+        return toCompletableFuture(
+                getAsyncRestTemplate().exchange(
+                        getWebServiceUrl() + (id == null ? "" : "/" + id),
+                        HttpMethod.DELETE,
+                        convertToHttpEntity(null),
+                        getRestTestFixture().getResourceType()))
+                .handleAsync((responseEntity, error) -> {
+                    final HttpStatusCodeException httpException = findHttpStatusCodeException(error);
+                    if (httpException != null)
+                        assertErrorResponse(httpException, expectedStatus, expectedErrors);
+                    else
+                        assertMissingBody(expectedStatus, expectedError, responseEntity);
+                    return null;
+                }, ASYNC_ASSERTION_EXECUTOR);
+    }
+
+    /**
+     * Call the REST web service to get all entity pages concurrently,
+     * and verify they hold all the loaded entities without duplicate or gap.
+     *
+     * @param sorted {@code true} if entities are sorted
+     * @return The crawl result
+     */
+    protected PageCrawl<Resource<T>> crawlEntities(boolean sorted) {
+
+        final int documentsCount = (int) getIndexedDocumentCount();
+
+        return crawlEntities(sorted, getCustomizer().customizeFindAllFixture(sorted ?
+                testClientOperations.findAllDocumentsPagedSorted(getDocumentMetadata(), getTestFixture().getSortField(), 0, documentsCount) :
+                testClientOperations.findAllDocumentsPaged(getDocumentMetadata(), 0, documentsCount)));
+    }
+
+    /**
+     * Call the REST web service to get all entity pages concurrently,
+     * and verify they hold the expected entities without duplicate or gap.
+     *
+     * @param sorted    {@code true} if entities are sorted, the expected entities order is then verified
+     * @param documents The expected entities
+     * @return The crawl result
+     */
+    protected PageCrawl<Resource<T>> crawlEntities(boolean sorted, List<T> documents) {
+
+        final int pageSize = getTestFixture().getPageSize();
+        final int documentsCount = (int) getIndexedDocumentCount();
+
+        // Define the fixture for entities comparison
+        final List<Resource<T>> fixture = documents.stream()
+                .map(this::convertToResource)
+                .collect(Collectors.toList());
+
+        // Send a GET request for each page and verify its metadata
+        return assertPaginationCrawl(sorted ? "sorted entities" : "entities", getPageCount(pageSize),
+                page -> {
+                    final ResponseEntity<PagedResources<Resource<T>>> responseEntity =
+                            exchangeMeasured(RestTestedMethod.FindAllPageable.class, () -> restTemplate.exchange(
+                                    getEntitiesUrl(sorted, page),
+                                    HttpMethod.GET,
+                                    convertToHttpEntity(null),
+                                    getRestTestFixture().getPagedResourcesType()));
+
+                    assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
+                    assertThat(responseEntity.getBody().getMetadata(), is(new PagedResources.PageMetadata(pageSize, page, documentsCount)));
+                    return new ArrayList<>(responseEntity.getBody().getContent());
+                },
+                fixture, sorted,
+                resource -> resource.getId().getHref(), this::describeResourceDifferences);
+    }
+
+    /**
+     * Indicate if the GET responses are compared as raw JSON token streams against expected JSON trees,
+     * instead of being deserialized into resources. Override this method to enable this mode.
+     *
+     * @return {@code true} to compare raw JSON responses, {@code false} by default
+     */
+    protected boolean isJsonTreeComparison() {
+        return false;
+    }
+
+    /**
+     * Render the expected HAL JSON tree of an entity resource : the entity fields without its identifier, and its links.
+     * The entity is rendered with the HAL object mapper of the application, once per test class and entity identifier :
+     * the tree is rendered again only if the entity isn't equal to the one the cached tree was rendered from.
+     * The returned tree is shared, it must not be altered.
+     *
+     * @param entity The entity
+     * @return The expected JSON tree
+     */
+    protected ObjectNode renderExpectedResource(T entity) {
+
+        final ID id = getIdFieldValue(entity);
+        final Map<Object, Map.Entry<Object, ObjectNode>> resources = EXPECTED_RESOURCES.computeIfAbsent(getClass(), testClass -> new ConcurrentHashMap<>());
+
+        final Map.Entry<Object, ObjectNode> cached = resources.get(id);
+        if (cached != null && cached.getKey().equals(entity))
+            return cached.getValue();
+
+        final ObjectNode resource = findObjectMapper(MediaTypes.HAL_JSON).valueToTree(entity);
+        resource.remove(getDocumentMetadata().getIdProperty().getField().getName());      // The identifier isn't sent in the entity response
+
+        resource.set("_links", renderLinks(Arrays.asList(
+                new Link(getWebServiceUrl().toString() + "/" + id),
+                new Link(getWebServiceUrl().toString() + "/" + id, getDocumentMetadata().getType().getSimpleName().toLowerCase()))));
+
+        resources.put(id, new AbstractMap.SimpleImmutableEntry<>(entity, resource));
+        return resource;
+    }
 
-            assertThat(e.getStatusCode(), is(expectedStatus));  // Verify the expected HTTP status code
-            if (expectedErrors != null)                         // Verify that validation errors are the expected ones
-                assertThat(findValidationErrors(e).toArray(), is(expectedErrors.toArray()));
+    /**
+     * Render the expected HAL JSON tree of paged entity resources : the embedded resources, the links and the page metadata.
+     *
+     * @param documents The expected entities of the page
+     * @param sorted    {@code true} if entities are sorted
+     * @param page      {@code null} if no page is request, else a page number starting from 0
+     * @return The expected JSON tree
+     */
+    protected ObjectNode renderExpectedPagedResources(List<T> documents, boolean sorted, Integer page) {
+
+        final long totalDocuments = getIndexedDocumentCount();
+        final int pageSize = getRequestedPageSize(page);
+        final ObjectNode pagedResources = findObjectMapper(MediaTypes.HAL_JSON).createObjectNode();
+
+        // Embedded resources
+        final ArrayNode resources = pagedResources.putObject("_embedded")
+                .putArray(getDocumentMetadata().getType().getSimpleName().toLowerCase() + "s");
+        documents.forEach(document -> resources.add(renderExpectedResource(document)));
+
+        // Links
+        pagedResources.set("_links", renderLinks(totalDocuments > documents.size() ? getPagedResourcesLinks(sorted, page) : getResourcesLinks()));
+
+        // Page metadata
+        pagedResources.putObject("page")
+                .put("size", pageSize)
+                .put("totalElements", totalDocuments)
+                .put("totalPages", totalDocuments / pageSize + (totalDocuments % pageSize == 0 ? 0 : 1))
+                .put("number", page == null ? 0 : page);
+
+        return pagedResources;
+    }
+
+    /**
+     * Get the maximum number of validation error scenarios run at the same time. Override this method to change it.
+     *
+     * @return The maximum number of concurrent validation error scenarios
+     */
+    protected int getValidationParallelism() {
+        return 8;
+    }
+
+    /**
+     * Run validation error scenarios concurrently, then fail with every scenario whose response doesn't match the expected one.
+     *
+     * @param scenarios The validation error scenarios, by description starting with the scenario index, so that
+     *                  scenarios with the same description don't replace each other
+     */
+    protected void assertValidationScenarios(Map<String, Runnable> scenarios) {
+        new ConcurrentAssertions(getValidationParallelism()).assertAll(scenarios);
+    }
+
+    /**
+     * Call the REST web service to get the current ETag of an entity.
+     * The calling test is skipped if the web service doesn't return ETags.
+     *
+     * @param entity The entity
+     * @return The current ETag of the entity
+     */
+    protected String getEntityETag(T entity) {
+
+        final ResponseEntity<String> responseEntity = getEntityConditionally(entity, null);
+        assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
+
+        final String eTag = responseEntity.getHeaders().getETag();
+        Assume.assumeNotNull(eTag);
+
+        return eTag;
+    }
+
+    /**
+     * Call the REST web service to get an entity, with an {@code If-None-Match} header.
+     * The response body isn't deserialized.
+     *
+     * @param entity The entity
+     * @param eTag   The ETag of the {@code If-None-Match} header, {@code null} for an unconditional GET
+     * @return The raw response
+     */
+    protected ResponseEntity<String> getEntityConditionally(T entity, String eTag) {
+
+        final HttpEntity<?> httpEntity = convertToJsonTreeHttpEntity();
+        final HttpHeaders headers = new HttpHeaders();
+        headers.putAll(httpEntity.getHeaders());
+        if (eTag != null)
+            headers.setIfNoneMatch(eTag);
+
+        // Send a GET request
+        return exchangeMeasured(RestTestedMethod.ConditionalGet.class, () -> restTemplate.exchange(
+                getWebServiceUrl() + "/" + getIdFieldValue(entity),
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class));
+    }
+
+    /**
+     * Get the settings of the conditional GET savings test. Override this method to change them.
+     *
+     * @return The conditional GET settings
+     */
+    protected ConditionalGetSettings getConditionalGetSettings() {
+        return new ConditionalGetSettings();
+    }
+
+    /**
+     * Get the settings of the compression test. Override this method to change them.
+     *
+     * @return The compression settings
+     */
+    protected CompressionSettings getCompressionSettings() {
+        return new CompressionSettings();
+    }
+
+    /**
+     * Get the GET endpoints of the compression test : an entity, all entities unsorted and sorted, the first and the last pages.
+     * Override this method to change them.
+     *
+     * @return The endpoint URLs, by label
+     */
+    protected Map<String, String> getCompressionEndpoints() {
+
+        final int lastPage = Math.max(1, getTotalPages()) - 1;
+
+        final Map<String, String> endpoints = new LinkedHashMap<>();
+        endpoints.put("entity", getWebServiceUrl() + "/" + getIdFieldValue(getTestFixture().newExistingDocument()));
+        endpoints.put("entities", getEntitiesUrl(false, null));
+        endpoints.put("entities sorted", getEntitiesUrl(true, null));
+        endpoints.put("first page", getEntitiesUrl(false, 0));
+        endpoints.put("last page sorted", getEntitiesUrl(true, lastPage));
+
+        return endpoints;
+    }
+
+    /**
+     * Call each endpoint with and without compression, assert the decoded responses hold the same JSON content,
+     * and measure their sizes and latencies.
+     * An endpoint whose response isn't compressed, for example because it is under the server minimum response size,
+     * is reported with the {@code identity} encoding.
+     *
+     * @param settings  The compression settings
+     * @param endpoints The endpoint URLs, by label
+     * @return The compression report
+     */
+    protected CompressionReport runCompression(CompressionSettings settings, Map<String, String> endpoints) {
+
+        assumeHttpTransport("The compression test");
+        if (rawHttpClient == null)
+            throw new IllegalStateException("No rawHttpClient bean is defined for compression tests");
+
+        final List<EndpointCompression> measures = new ArrayList<>();
+        endpoints.forEach((label, url) -> {
+
+            // Warm up both variants
+            for (int i = 0; i < settings.getWarmUpCalls(); i++) {
+                fetchRawBody(url, "identity");
+                fetchRawBody(url, settings.getAcceptEncoding());
+            }
+
+            // Sample both variants alternately, the compressed latency includes decoding
+            final LoadStatistics identityLatency = new LoadStatistics();
+            final LoadStatistics encodedLatency = new LoadStatistics();
+            Map.Entry<String, byte[]> identityBody = null;
+            Map.Entry<String, byte[]> encodedBody = null;
+            byte[] decodedBody = null;
+            for (int i = 0; i < settings.getSampledCalls(); i++) {
+
+                long start = System.nanoTime();
+                identityBody = fetchRawBody(url, "identity");
+                identityLatency.recordSuccess(System.nanoTime() - start);
+
+                start = System.nanoTime();
+                encodedBody = fetchRawBody(url, settings.getAcceptEncoding());
+                decodedBody = decodeBody(encodedBody.getKey(), encodedBody.getValue());
+                encodedLatency.recordSuccess(System.nanoTime() - start);
+            }
+            if (identityBody == null)
+                return;
+
+            // Both variants must hold the same JSON content
+            final String differences;
+            try {
+                differences = JsonTreeComparator.describeDifferences(
+                        JSON_TREE_MAPPER.readTree(identityBody.getValue()),
+                        new String(decodedBody, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new RuntimeException("Invalid JSON response from " + url, e);
+            }
+            if (differences != null)
+                fail("Compressed response of " + label + " (" + encodedBody.getKey() + ") doesn't match the uncompressed one : " + differences);
+
+            measures.add(new EndpointCompression(label, encodedBody.getKey(),
+                    identityBody.getValue().length, encodedBody.getValue().length, identityLatency, encodedLatency));
+        });
+
+        return new CompressionReport(measures);
+    }
+
+    /**
+     * Get the settings of the binary format tests. Override this method to change them.
+     *
+     * @return The binary format settings
+     */
+    protected BinaryFormatSettings getBinaryFormatSettings() {
+        return new BinaryFormatSettings();
+    }
+
+    /**
+     * Call a web service method with request and response bodies in each media type, assert the decoded responses
+     * are the expected resource, and measure payload sizes and serialization latencies.
+     * <p/>
+     * Bodies are encoded and decoded by the Jackson converters of the REST template, outside of the exchange : the
+     * exchange latency only includes the transfer and the server processing, deserialization and serialization included.
+     * A media type that the web service doesn't support is left out of the report,
+     * the calling test is skipped if the web service supports none of them.
+     *
+     * @param settings         The binary format settings
+     * @param testedMethod     The tested method
+     * @param httpMethod       The HTTP method
+     * @param url              The URL to call
+     * @param entity           The entity to send, {@code null} if the request has no body
+     * @param expectedStatus   Expected HTTP status to assert
+     * @param expectedResource Resource that must match the decoded responses
+     * @param afterCall        Action called with the response after each call, such as a cleanup, {@code null} if none
+     * @return The binary format report
+     */
+    protected BinaryFormatReport runBinaryFormats(BinaryFormatSettings settings, Class<? extends RestTestedMethod> testedMethod,
+                                                  HttpMethod httpMethod, String url, T entity,
+                                                  HttpStatus expectedStatus, Resource<T> expectedResource,
+                                                  Consumer<ResponseEntity<byte[]>> afterCall) {
+
+        final List<FormatMeasure> measures = new ArrayList<>();
+        for (String mediaType : settings.getMediaTypes()) {
+
+            final FormatMeasure measure = measureBinaryFormat(settings, testedMethod, httpMethod, url, entity,
+                    expectedStatus, expectedResource, afterCall, mediaType);
+            if (measure != null)
+                measures.add(measure);
+        }
+        Assume.assumeFalse("The web service supports none of the media types " + settings.getMediaTypes(), measures.isEmpty());
+
+        return new BinaryFormatReport(measures);
+    }
+
+    /**
+     * Call a web service method with request and response bodies in a media type, assert the decoded response
+     * is the expected resource, and measure payload sizes and serialization latencies.
+     *
+     * @param settings         The binary format settings
+     * @param testedMethod     The tested method
+     * @param httpMethod       The HTTP method
+     * @param url              The URL to call
+     * @param entity           The entity to send, {@code null} if the request has no body
+     * @param expectedStatus   Expected HTTP status to assert
+     * @param expectedResource Resource that must match the decoded response
+     * @param afterCall        Action called with the response after each call, {@code null} if none
+     * @param mediaType        The media type of the request and response bodies
+     * @return The measure, {@code null} if the web service doesn't support the media type
+     */
+    private FormatMeasure measureBinaryFormat(BinaryFormatSettings settings, Class<? extends RestTestedMethod> testedMethod,
+                                              HttpMethod httpMethod, String url, T entity,
+                                              HttpStatus expectedStatus, Resource<T> expectedResource,
+                                              Consumer<ResponseEntity<byte[]>> afterCall, String mediaType) {
+
+        final ObjectMapper mapper = findObjectMapper(MediaType.parseMediaType(mediaType));
+        final JavaType resourceType = mapper.getTypeFactory().constructType(getRestTestFixture().getResourceType().getType());
+
+        final LoadStatistics encodeLatency = new LoadStatistics();
+        final LoadStatistics exchangeLatency = new LoadStatistics();
+        final LoadStatistics decodeLatency = new LoadStatistics();
+        byte[] requestBody = null;
+        ResponseEntity<byte[]> responseEntity = null;
+        Resource<T> resource = null;
+        for (int i = 0; i < settings.getWarmUpCalls() + settings.getSampledCalls(); i++) {
+            final boolean sampled = i >= settings.getWarmUpCalls();
+
+            // Encode the request body
+            long start = System.nanoTime();
+            try {
+                requestBody = entity == null ? null : mapper.writeValueAsBytes(entity);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Entity can't be written as " + mediaType, e);
+            }
+            if (sampled && entity != null)
+                encodeLatency.recordSuccess(System.nanoTime() - start);
+
+            // Send the request
+            final HttpHeaders headers = new HttpHeaders();
+            headers.setAccept(Collections.singletonList(MediaType.parseMediaType(mediaType)));
+            if (requestBody != null)
+                headers.setContentType(MediaType.parseMediaType(mediaType));
+            final HttpEntity<?> httpEntity = getCustomizer().customizeHttpEntity(new HttpEntity<>(requestBody, headers));
+
+            start = System.nanoTime();
+            try {
+                responseEntity = exchangeMeasured(testedMethod, () -> restTemplate.exchange(url, httpMethod, httpEntity, byte[].class));
+            } catch (HttpStatusCodeException e) {
+                if (e.getStatusCode() == HttpStatus.NOT_ACCEPTABLE || e.getStatusCode() == HttpStatus.UNSUPPORTED_MEDIA_TYPE) {
+                    logger.info("The web service doesn't support {}, left out of the binary format report", mediaType);
+                    return null;
+                }
+                throw e;
+            }
+            if (sampled)
+                exchangeLatency.recordSuccess(System.nanoTime() - start);
+            if (afterCall != null)
+                afterCall.accept(responseEntity);
+
+            // Decode the response body
+            start = System.nanoTime();
+            try {
+                resource = mapper.readValue(responseEntity.getBody(), resourceType);
+            } catch (IOException e) {
+                throw new RuntimeException("Invalid " + mediaType + " response from " + url, e);
+            }
+            if (sampled)
+                decodeLatency.recordSuccess(System.nanoTime() - start);
+        }
+        if (responseEntity == null)
+            return null;
+
+        // The decoded response must be the expected resource
+        assertThat(responseEntity.getStatusCode(), is(expectedStatus));
+        assertSameResource(expectedResource, resource);
+
+        return new FormatMeasure(testedMethod.getSimpleName(), mediaType,
+                requestBody == null ? 0 : requestBody.length, responseEntity.getBody().length,
+                encodeLatency, exchangeLatency, decodeLatency);
+    }
+
+    /**
+     * Delete a document created by a web service call, so that the same entity can be created again.
+     * The document identifier is the last segment of the response location, else the entity identifier.
+     *
+     * @param entity   The created entity
+     * @param response The creation response
+     */
+    private void deleteCreatedDocument(T entity, ResponseEntity<?> response) {
+
+        final URI location = response.getHeaders().getLocation();
+        final String id = location != null
+                ? location.getPath().substring(location.getPath().lastIndexOf('/') + 1)
+                : String.valueOf(getIdFieldValue(entity));
+        testClientOperations.deleteDocuments(getDocumentMetadata(), Collections.singletonList(id), 1);
+    }
+
+    /**
+     * Get the settings of the load test. Override this method to change them.
+     *
+     * @return The load settings
+     */
+    protected LoadSettings getLoadSettings() {
+        return new LoadSettings();
+    }
+
+    /**
+     * Get the settings of the open-loop load test. Override this method to change them.
+     * The default mix sends 80% of GET by identifier, 15% of paged GET and 5% of PATCH.
+     * The PATCH calls are applied to a dedicated generated document, that the GET by identifier calls don't read :
+     * see {@link #getLoadScenarios()}.
+     *
+     * @return The open-loop load settings
+     */
+    protected OpenLoopSettings<Class<? extends RestTestedMethod>> getOpenLoopSettings() {
+
+        final OpenLoopSettings<Class<? extends RestTestedMethod>> settings = new OpenLoopSettings<>();
+        settings.getMix().put(RestTestedMethod.FindOne.class, 80.0);
+        settings.getMix().put(RestTestedMethod.FindAllPageable.class, 15.0);
+        settings.getMix().put(RestTestedMethod.Patch.class, 5.0);
+
+        return settings;
+    }
+
+    /**
+     * Get the scenarios replayed by the load test, for the tested methods only.
+     * Each scenario calls a helper method with a new fixture entity, so that the same assertions are applied.
+     * <p/>
+     * The PUT and PATCH scenarios write to dedicated generated documents, that no read scenario asserts on,
+     * and their writes are idempotent : concurrent scenarios can't change the response another one expects.
+     * The generated documents are indexed, and patched once, before the scenarios are returned.
+     * The indexed documents are then counted once for the assertions of the scenarios, see {@link #getIndexedDocumentCount()}.
+     *
+     * @return The load scenarios, by tested method
+     */
+    protected Map<Class<? extends RestTestedMethod>, Runnable> getLoadScenarios() {
+
+        // Dedicated write targets, already in their final state
+        final T updateTarget = withGeneratedId(getTestFixture().newDocumentToUpdate(), "load-update-", 0);
+        final T patchTarget = withGeneratedId(getTestFixture().newExistingDocument(), "load-patch-", 1);
+        if (testedMethods.contains(RestTestedMethod.Update.class))
+            testClientOperations.indexDocument(getDocumentMetadata(), String.valueOf(getIdFieldValue(updateTarget)), updateTarget);
+        if (testedMethods.contains(RestTestedMethod.Patch.class)) {
+            testClientOperations.indexDocument(getDocumentMetadata(), String.valueOf(getIdFieldValue(patchTarget)), patchTarget);
+            patchEntity(true, patchTarget, getRestTestFixture().newObjectForPatch(), HttpStatus.OK, false);
         }
+        loadDocumentCount = testClientOperations.countDocuments(getDocumentMetadata());
+
+        final int totalPages = Math.max(1, getTotalPages());
+
+        final Map<Class<? extends RestTestedMethod>, Runnable> scenarios = new LinkedHashMap<>();
+        scenarios.put(RestTestedMethod.FindOne.class, () -> getEntity(getTestFixture().newExistingDocument(), HttpStatus.OK, false));
+        scenarios.put(RestTestedMethod.FindAll.class, () -> getEntities(ThreadLocalRandom.current().nextBoolean()));
+        scenarios.put(RestTestedMethod.FindAllPageable.class, () -> getEntities(ThreadLocalRandom.current().nextBoolean(), ThreadLocalRandom.current().nextInt(totalPages)));
+        scenarios.put(RestTestedMethod.Exist.class, () -> headEntity(getTestFixture().newExistingDocument(), HttpStatus.NO_CONTENT, false));
+        scenarios.put(RestTestedMethod.Update.class, () -> putEntity(withGeneratedId(getTestFixture().newDocumentToUpdate(), "load-update-", 0), HttpStatus.OK, false));
+        scenarios.put(RestTestedMethod.Patch.class, () -> patchEntity(true, withGeneratedId(getTestFixture().newExistingDocument(), "load-patch-", 1), getRestTestFixture().newObjectForPatch(), HttpStatus.OK, false));
+        scenarios.keySet().retainAll(testedMethods);
+
+        return scenarios;
+    }
+
+    /**
+     * Replay scenarios from concurrent workers and report their latency.
+     *
+     * @param settings  The load settings
+     * @param scenarios The scenarios to replay, by tested method
+     * @return The load report
+     */
+    protected LoadReport<Class<? extends RestTestedMethod>> runLoad(LoadSettings settings, Map<Class<? extends RestTestedMethod>, Runnable> scenarios) {
+        return new LoadRunner<Class<? extends RestTestedMethod>>(settings.getWorkers(), settings.getDurationMillis(), settings.getMaxCalls()).run(scenarios);
+    }
+
+    /**
+     * Send scenario calls at a target rate, whether or not earlier calls have returned, and report their latency
+     * measured from the intended send times. Mix entries without a scenario are ignored.
+     *
+     * @param settings  The open-loop load settings
+     * @param scenarios The scenarios to send, by tested method
+     * @return The load report
+     */
+    protected LoadReport<Class<? extends RestTestedMethod>> runOpenLoopLoad(OpenLoopSettings<Class<? extends RestTestedMethod>> settings, Map<Class<? extends RestTestedMethod>, Runnable> scenarios) {
+
+        final Map<Class<? extends RestTestedMethod>, Double> mix = new LinkedHashMap<>(settings.getMix());
+        mix.keySet().retainAll(scenarios.keySet());
+
+        return new OpenLoopLoadGenerator<Class<? extends RestTestedMethod>>(settings.getCallsPerSecond(), settings.getDurationMillis(), settings.getMaxConcurrency()).run(scenarios, mix);
+    }
+
+    /**
+     * Get the Elasticsearch latency profiles of the latency injection test, the baseline first. Override this method to change them.
+     * The default profiles add no latency, a log-normal delay (median 5 ms, p99 50 ms), 500 ms stalls on 1% of the calls
+     * and a 1 MB/s response transfer rate.
+     *
+     * @return The latency profiles
+     */
+    protected List<LatencyProfile> getLatencyProfiles() {
+
+        return Arrays.asList(
+                new LatencyProfile("baseline", 0, 0, 0, 0, 0),
+                new LatencyProfile("log-normal delay", 5, 50, 0, 0, 0),
+                new LatencyProfile("stalls", 0, 0, 0.01, 500, 0),
+                new LatencyProfile("throttled", 0, 0, 0, 0, 1_000_000));
+    }
+
+    /**
+     * Replay scenarios from concurrent workers under each Elasticsearch latency profile and report their latency.
+     *
+     * @param settings  The load settings, for each profile
+     * @param scenarios The scenarios to replay, by tested method
+     * @param profiles  The latency profiles, the baseline first
+     * @return The load reports by profile
+     * @throws IllegalStateException If the Elasticsearch client doesn't inject latency
+     */
+    protected LatencyProfileReport<Class<? extends RestTestedMethod>> runLoadUnderLatencyProfiles(LoadSettings settings, Map<Class<? extends RestTestedMethod>, Runnable> scenarios, List<LatencyProfile> profiles) {
+
+        if (!(repositoryElasticsearchClient instanceof LatencyInjectingClient))
+            throw new IllegalStateException("The Elasticsearch client doesn't inject latency, set the testing.elasticsearch.latency-injection property");
+
+        final LatencyInjectingClient client = (LatencyInjectingClient) repositoryElasticsearchClient;
+        final Map<String, LoadReport<Class<? extends RestTestedMethod>>> reports = new LinkedHashMap<>();
+        for (LatencyProfile profile : profiles) {
+            client.setProfile(profile);
+            try {
+                reports.put(profile.getName(), runLoad(settings, scenarios));
+            } finally {
+                client.setProfile(null);
+            }
+        }
+
+        return new LatencyProfileReport<>(reports);
     }
 
     /**
@@ -1098,6 +2760,43 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
         return result;
     }
 
+    /**
+     * Assert that an entity resource is the expected one, comparing its content field by field.
+     *
+     * @param expected The expected entity resource
+     * @param actual   The actual entity resource
+     */
+    protected void assertSameResource(Resource<T> expected, Resource<T> actual) {
+
+        final String differences = describeResourceDifferences(expected, actual);
+        if (differences != null)
+            fail("Resource mismatch (" + (expected == null ? "n/a" : expected.getId().getHref()) + ") : " + differences);
+    }
+
+    /**
+     * Assert that entity resources are the expected ones, in the same order.
+     * The actual resources are iterated without being copied.
+     *
+     * @param expected The expected entity resources
+     * @param actual   The actual entity resources
+     */
+    protected void assertSameResources(Iterable<Resource<T>> expected, Iterable<Resource<T>> actual) {
+        ResultsComparator.assertSameSequence(expected, actual, resource -> resource.getId().getHref(), this::describeResourceDifferences);
+    }
+
+    /**
+     * Get the number of documents in the index type, that are the loaded fixture documents
+     * plus the documents generated by some tests, such as the load test write targets.
+     * Once the load scenarios are built, the number counted then is returned instead of counting again.
+     *
+     * @return The number of indexed documents
+     */
+    protected long getIndexedDocumentCount() {
+
+        final Long documentCount = loadDocumentCount;
+        return documentCount != null ? documentCount : testClientOperations.countDocuments(getDocumentMetadata());
+    }
+
     /**
      * Compute the total number of pages.
      *
@@ -1105,7 +2804,7 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
      */
     protected int getTotalPages() {
 
-        long totalElements = this.getTestDocumentsLoader().getLoadedDocumentCount();
+        long totalElements = getIndexedDocumentCount();
         int pageSize = getTestFixture().getPageSize();
 
         return (int) Math.ceil((double) totalElements / (double) pageSize);
@@ -1135,7 +2834,7 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
         final int pageNo = (page == null) ? 0 : page;
         final String fieldToSortBy = getTestFixture().getSortField().getName();
         final int pageSize = (page == null) ? defaultPageSize : getTestFixture().getPageSize();
-        final long documentCount = this.getTestDocumentsLoader().getLoadedDocumentCount();
+        final long documentCount = getIndexedDocumentCount();
         final long lastPage = documentCount / pageSize - (documentCount % pageSize == 0 ? 1 : 0);
 
         List<Link> links = new ArrayList<>();
@@ -1155,6 +2854,121 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
     /*                                          Private helper methods                                                */
     /*----------------------------------------------------------------------------------------------------------------*/
 
+    /**
+     * Reset the connection metrics of the pooled HTTP client, if the application defines them.
+     */
+    private void resetConnectionMetrics() {
+        if (httpConnectionMetrics != null)
+            httpConnectionMetrics.reset();
+    }
+
+    /**
+     * Log the leased, available and reused connections of the pooled HTTP client since the last reset,
+     * if the application defines the connection metrics.
+     *
+     * @param reportName Name of the report the connection metrics belong to
+     */
+    private void logConnectionMetrics(String reportName) {
+
+        if (httpConnectionMetrics == null)
+            return;
+
+        final PoolStats poolStats = httpConnectionMetrics.getPoolStats();
+        logger.info("{} HTTP connections for {} : leased={}, available={}, reused={} of {} requests ({} opened)",
+                reportName, getClass().getSimpleName(),
+                poolStats.getLeased(), poolStats.getAvailable(),
+                httpConnectionMetrics.getReusedCount(), httpConnectionMetrics.getRequestCount(), httpConnectionMetrics.getConnectionCount());
+    }
+
+    /**
+     * Wrap the raw HAL JSON response of a {@link #isJsonTreeComparison() JSON tree comparison}, keeping its status and headers.
+     * The raw body is only decoded if the body of the wrapped response is read.
+     *
+     * @param rawResponse The raw response, {@code null} if an error response was expected
+     * @param type        The type of the response body
+     * @param <B>         Type of the response body
+     * @return The lazily decoded response, {@code null} if an error response was expected
+     */
+    private <B> ResponseEntity<B> decodeJsonTreeResponse(ResponseEntity<String> rawResponse, Type type) {
+
+        if (rawResponse == null)
+            return null;
+
+        final ObjectMapper mapper = findObjectMapper(MediaTypes.HAL_JSON);
+        return new LazyResponseEntity<>(rawResponse, body -> {
+            try {
+                return mapper.readValue(body, mapper.getTypeFactory().constructType(type));
+            } catch (IOException e) {
+                throw new RuntimeException("Invalid " + MediaTypes.HAL_JSON + " response", e);
+            }
+        });
+    }
+
+    /**
+     * Find the object mapper of the REST template Jackson converter supporting a media type.
+     *
+     * @param mediaType The media type
+     * @return The object mapper
+     * @throws IllegalStateException If no Jackson converter of the REST template supports the media type
+     */
+    private ObjectMapper findObjectMapper(MediaType mediaType) {
+
+        for (HttpMessageConverter<?> converter : restTemplate.getMessageConverters())
+            if (converter instanceof MappingJackson2HttpMessageConverter
+                    && converter.getSupportedMediaTypes().stream().anyMatch(supported -> supported.includes(mediaType)))
+                return ((MappingJackson2HttpMessageConverter) converter).getObjectMapper();
+
+        throw new IllegalStateException("No Jackson converter of the REST template supports " + mediaType);
+    }
+
+    /**
+     * Copy the REST template with another request factory and other interceptors.
+     *
+     * @param requestFactory The request factory of the copy
+     * @param interceptors   The interceptors of the copy
+     * @return The REST template copy
+     */
+    private RestTemplate copyRestTemplate(ClientHttpRequestFactory requestFactory, List<ClientHttpRequestInterceptor> interceptors) {
+
+        final RestTemplate copy = new RestTemplate(restTemplate.getMessageConverters());
+        copy.setErrorHandler(restTemplate.getErrorHandler());
+        copy.setRequestFactory(requestFactory);
+        copy.setInterceptors(interceptors);
+
+        return copy;
+    }
+
+    /**
+     * Send a request with the REST template and record its payload sizes and client allocations for a tested method.
+     * The metrics are recorded whether the request succeeds or not, if the payload metrics are enabled.
+     *
+     * @param method   The tested method the request belongs to
+     * @param exchange The request exchange
+     * @param <E>      The response body type
+     * @return The response
+     */
+    private <E> ResponseEntity<E> exchangeMeasured(Class<? extends RestTestedMethod> method, Supplier<ResponseEntity<E>> exchange) {
+
+        if (!payloadMetricsEnabled)
+            return exchange.get();
+
+        if (payloadSizeInterceptor != null)
+            payloadSizeInterceptor.reset();
+        final long allocatedBefore = AllocationCounter.getCurrentThreadAllocatedBytes();
+
+        try {
+            return exchange.get();
+        } finally {
+            final long allocatedBytes = AllocationCounter.isSupported() ? AllocationCounter.getCurrentThreadAllocatedBytes() - allocatedBefore : 0;
+            PAYLOAD_METRICS.computeIfAbsent(getClass(), c -> new PayloadMetrics()).record(
+                    method.getSimpleName(),
+                    payloadSizeInterceptor == null ? 0 : payloadSizeInterceptor.getRequestBodyBytes(),
+                    payloadSizeInterceptor == null ? 0 : payloadSizeInterceptor.getResponseHeaderBytes(),
+                    payloadSizeInterceptor == null ? 0 : payloadSizeInterceptor.getResponseBodyBytes(),
+                    allocatedBytes);
+        }
+    }
+
     /**
      * Get URL of the web service to test.
      *
@@ -1182,9 +2996,17 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
         }
     }
 
+    /**
+     * Get the URI of the server the REST template requests are sent to.
+     * With the MockMvc transport, the URI has no port, as the in-process requests render their links on the default port.
+     *
+     * @return The server URI
+     */
     protected URI getServerUri() {
         try {
-            return new URI("http", null, "localhost", serverPort, null, null, null);
+            // In-process requests are handled as sent to the default port
+            final int port = getHttpTransport() == HttpTransport.MOCK_MVC ? -1 : serverPort;
+            return new URI("http", null, "localhost", port, null, null, null);
         } catch (URISyntaxException e) {
             throw new RuntimeException("Invalid server URI", e);
         }
@@ -1215,6 +3037,306 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
         }
     }
 
+    /**
+     * Describe the differences between two entity resources.
+     *
+     * @param expected The expected entity resource
+     * @param actual   The actual entity resource
+     * @return {@code null} if both resources are equal, else a description of their differences
+     */
+    private String describeResourceDifferences(Resource<T> expected, Resource<T> actual) {
+
+        if (expected == actual)
+            return null;
+        if (expected == null || actual == null)
+            return "expected <" + expected + "> but was <" + actual + ">";
+        if (!expected.getLinks().equals(actual.getLinks()))
+            return "links : expected <" + expected.getLinks() + "> but was <" + actual.getLinks() + ">";
+
+        return getDocumentComparator().describeDifferences(expected.getContent(), actual.getContent());
+    }
+
+    /**
+     * Get the URL of the web service to get all entities, with sorting and paging parameters.
+     *
+     * @param sorted {@code true} if entities are sorted
+     * @param page   {@code null} if no page is request, else a page number starting from 0
+     * @return The URL of the web service
+     */
+    private String getEntitiesUrl(boolean sorted, Integer page) {
+
+        // Build GET request parameters for sorting and paging
+        final String urlParams =
+                (!sorted && page == null ? "" : "?" +
+                        (!sorted ? "&" : "sort=" + getTestFixture().getSortField().getName() + ",desc" +
+                                (page == null ? "" : "&")) +
+                        (page == null ? "" : "page=" + page + "&size=" + getRequestedPageSize(page))
+                );
+
+        return getWebServiceUrl() + urlParams;
+    }
+
+    /**
+     * Get the page size of a request getting all entities.
+     *
+     * @param page {@code null} if no page is request, else a page number starting from 0
+     * @return The page size
+     */
+    private int getRequestedPageSize(Integer page) {
+        return (page == null) ? defaultPageSize : getTestFixture().getPageSize(); // Spring Data REST always get paged resources
+    }
+
+    /**
+     * Find the entities a request getting all entities must return.
+     *
+     * @param sorted {@code true} if entities are sorted
+     * @param page   {@code null} if no page is request, else a page number starting from 0
+     * @return The expected entities
+     */
+    private List<T> findExpectedEntities(boolean sorted, Integer page) {
+
+        final int pageSize = getRequestedPageSize(page);
+
+        return getCustomizer().customizeFindAllFixture(sorted ?
+                testClientOperations.findAllDocumentsPagedSorted(getDocumentMetadata(), getTestFixture().getSortField(), (page != null) ? page : 0, pageSize) :
+                testClientOperations.findAllDocumentsPaged(getDocumentMetadata(), (page != null) ? page : 0, pageSize));
+    }
+
+    /**
+     * Assert the response of a request getting all entities matches the expected entities.
+     *
+     * @param responseEntity Entity response to inspect
+     * @param documents      The expected entities
+     * @param sorted         {@code true} if entities are sorted
+     * @param page           {@code null} if no page is request, else a page number starting from 0
+     */
+    private void assertEntitiesResponse(ResponseEntity<PagedResources<Resource<T>>> responseEntity, List<T> documents, boolean sorted, Integer page) {
+
+        // Define the fixture for entities comparison
+        final Iterable<Resource<T>> fixture = () -> documents
+                .stream()
+                .map(this::convertToResource)
+                .iterator();
+
+        // Define the fixture for metadata comparison
+        final long totalDocuments = getIndexedDocumentCount();
+        PagedResources.PageMetadata metadata = new PagedResources.PageMetadata(getRequestedPageSize(page), (page == null ? 0 : page), totalDocuments);
+
+        // Assert the entity response matches the expected one
+        assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));                      // Verify HTTP status code
+        assertThat(responseEntity.getBody().getMetadata(), is(metadata));                   // Verify body metadata
+        assertSameResources(fixture, responseEntity.getBody().getContent());               // Verify body content
+        if (totalDocuments > documents.size())                                              // Verify body links
+            assertThat(responseEntity.getBody().getLinks().toArray(), is(getPagedResourcesLinks(sorted, page).toArray()));
+        else
+            assertThat(responseEntity.getBody().getLinks().toArray(), is(getResourcesLinks().toArray()));
+        getCustomizer().assertResponse(responseEntity);
+    }
+
+    /**
+     * Get the asynchronous REST template.
+     *
+     * @return The asynchronous REST template
+     * @throws IllegalStateException If no asynchronous REST template is defined in the application context
+     */
+    private AsyncRestTemplate getAsyncRestTemplate() {
+
+        assumeHttpTransport("Asynchronous REST calls");
+        if (asyncRestTemplate == null)
+            throw new IllegalStateException("No AsyncRestTemplate bean is defined for asynchronous REST calls");
+
+        return asyncRestTemplate;
+    }
+
+    /**
+     * Adapt a listenable future to a completable future, so that response assertions can be chained.
+     *
+     * @param future The listenable future
+     * @param <V>    The future value type
+     * @return The completable future
+     */
+    private static <V> CompletableFuture<V> toCompletableFuture(ListenableFuture<V> future) {
+
+        final CompletableFuture<V> completableFuture = new CompletableFuture<>();
+        future.addCallback(completableFuture::complete, completableFuture::completeExceptionally);
+
+        return completableFuture;
+    }
+
+    /**
+     * Find the HTTP error response at the origin of an asynchronous call failure.
+     *
+     * @param error The asynchronous call failure, {@code null} if the call succeeded
+     * @return The HTTP error response, or {@code null} if the call succeeded
+     * @throws CompletionException If the call failed for another reason than an HTTP error response
+     */
+    private static HttpStatusCodeException findHttpStatusCodeException(Throwable error) {
+
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null)
+            cause = cause.getCause();
+
+        if (cause == null || cause instanceof HttpStatusCodeException)
+            return (HttpStatusCodeException) cause;
+
+        throw new CompletionException(cause);
+    }
+
+    /**
+     * Assert the expected status code and validation errors are verified by an HTTP error response.
+     *
+     * @param httpException  HTTP exception that holds the error response
+     * @param expectedStatus Expected HTTP status to assert
+     * @param expectedErrors Expected validation errors to assert
+     */
+    private void assertErrorResponse(HttpStatusCodeException httpException, HttpStatus expectedStatus, List<ValidationError> expectedErrors) {
+
+        assertThat(httpException.getStatusCode(), is(expectedStatus));  // Verify the expected HTTP status code
+        if (expectedErrors != null)                                     // Verify that validation errors are the expected ones
+            assertThat(findValidationErrors(httpException).toArray(), is(expectedErrors.toArray()));
+    }
+
+    /**
+     * Compute the PATCH request payload of a patch applied to an entity.
+     *
+     * @param merge  {@code true} to use JSON Merge Patch format and {@code false} to use JSON Patch format
+     * @param entity Entity data to patch
+     * @param patch  Object with some getters matching the {@link T} entity getters, used for patching these fields
+     * @return The PATCH request payload
+     */
+    @SuppressWarnings("unchecked")
+    private PatchPayload<T> computePatchPayload(boolean merge, T entity, Object patch) {
+
+        // Convert the object for patching to a JSON merge patch
+        final JsonNode jsonMerge = JSON_TREE_MAPPER.valueToTree(patch);
+
+        // Get entity to patch in JSON format
+        final JsonNode jsonSource = JSON_TREE_MAPPER.valueToTree(entity);
+
+        // Get the target entity the PATCH request must match by applying the JSON merge patch to the source entity
+        final JsonNode jsonTarget;
+        final T targetEntity;
+        try {
+            jsonTarget = JsonMergePatch.fromJson(jsonMerge).apply(jsonSource);
+            targetEntity = JSON_TREE_MAPPER.treeToValue(jsonTarget, (Class<T>) getDocumentMetadata().getType());
+        } catch (JsonPatchException | JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+
+        // Get a patch operation in Json merge patch or Json patch format
+        final JsonNode jsonPatchNode = merge ? jsonMerge : JsonDiff.asJson(jsonSource, jsonTarget);
+
+        return new PatchPayload<>(
+                jsonPatchNode.toString().getBytes(StandardCharsets.UTF_8),
+                merge ? MERGE_PATCH_JSON_UTF8 : JSON_PATCH_JSON_UTF8,
+                convertToResource(targetEntity));
+    }
+
+    /**
+     * Send a GET request without decoding the response body.
+     *
+     * @param url            The request URL
+     * @param acceptEncoding The accepted content encodings
+     * @return The content encoding of the response, {@code identity} if none, with the response body as received
+     */
+    private Map.Entry<String, byte[]> fetchRawBody(String url, String acceptEncoding) {
+
+        final HttpGet request = new HttpGet(url);
+        convertToHttpEntity(null).getHeaders().forEach((name, values) -> values.forEach(value -> request.addHeader(name, value)));
+        request.setHeader(HttpHeaders.ACCEPT, MediaTypes.HAL_JSON.toString());
+        request.setHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+
+        try (CloseableHttpResponse response = rawHttpClient.execute(request)) {
+
+            assertThat(response.getStatusLine().getStatusCode(), is(HttpStatus.OK.value()));     // Verify HTTP status code
+
+            final Header contentEncoding = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+            return new AbstractMap.SimpleImmutableEntry<>(
+                    contentEncoding == null ? "identity" : contentEncoding.getValue().trim().toLowerCase(),
+                    response.getEntity() == null ? new byte[0] : EntityUtils.toByteArray(response.getEntity()));
+
+        } catch (IOException e) {
+            throw new RuntimeException("GET request to " + url + " failed", e);
+        }
+    }
+
+    /**
+     * Decode a response body.
+     *
+     * @param contentEncoding The content encoding of the response
+     * @param body            The response body as received
+     * @return The decoded response body
+     */
+    private byte[] decodeBody(String contentEncoding, byte[] body) {
+
+        final InputStream input;
+        switch (contentEncoding) {
+            case "identity":
+                return body;
+            case "gzip":
+            case "x-gzip":
+                try {
+                    input = new GZIPInputStream(new ByteArrayInputStream(body));
+                } catch (IOException e) {
+                    throw new RuntimeException("Invalid gzip response body", e);
+                }
+                break;
+            case "deflate":
+                input = new InflaterInputStream(new ByteArrayInputStream(body));
+                break;
+            default:
+                throw new IllegalStateException("Unsupported content encoding " + contentEncoding);
+        }
+
+        try (InputStream decoded = input) {
+            return StreamUtils.copyToByteArray(decoded);
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid " + contentEncoding + " response body", e);
+        }
+    }
+
+    /**
+     * Define an HTTP entity without body, accepting HAL responses for raw JSON comparison.
+     *
+     * @return The HTTP entity
+     */
+    private HttpEntity<?> convertToJsonTreeHttpEntity() {
+
+        final HttpEntity<?> httpEntity = convertToHttpEntity(null);
+        final HttpHeaders headers = new HttpHeaders();
+        headers.putAll(httpEntity.getHeaders());
+        headers.setAccept(Collections.singletonList(MediaTypes.HAL_JSON));
+
+        return new HttpEntity<>(httpEntity.getBody(), headers);
+    }
+
+    /**
+     * Render HATEOAS links as a HAL {@code _links} JSON tree.
+     *
+     * @param links The links
+     * @return The HAL links JSON tree
+     */
+    private ObjectNode renderLinks(List<Link> links) {
+
+        final ObjectNode node = JSON_TREE_MAPPER.createObjectNode();
+        links.forEach(link -> node.putObject(link.getRel()).put("href", link.getHref()));
+
+        return node;
+    }
+
+    /**
+     * Assert that a raw JSON response body matches the expected JSON tree.
+     *
+     * @param expected The expected JSON tree
+     * @param body     The raw JSON response body
+     */
+    private void assertSameJsonTree(JsonNode expected, String body) {
+
+        final String differences = JsonTreeComparator.describeDifferences(expected, body);
+        if (differences != null)
+            fail("JSON response mismatch : " + differences);
+    }
+
     /**
      * Assert the expected status code is verified and the response body is missing.
      *
@@ -1242,7 +3364,19 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
      * @param responseEntity Entity response to inspect
      * @param expectedEntity Entity that must match the response
      */
-    private void assertExistingBody(final HttpStatus expectedStatus, boolean expectedError, final ResponseEntity<?> responseEntity, final T expectedEntity) {
+    private void assertExistingBody(final HttpStatus expectedStatus, boolean expectedError, final ResponseEntity<Resource<T>> responseEntity, final T expectedEntity) {
+        assertExistingResource(expectedStatus, expectedError, responseEntity, expectedError ? null : convertToResource(expectedEntity));
+    }
+
+    /**
+     * Assert the expected status code is verified and the response body matches the expected resource.
+     *
+     * @param expectedStatus   Expected HTTP status to assert
+     * @param expectedError    {@code true} if an error is expected
+     * @param responseEntity   Entity response to inspect
+     * @param expectedResource Resource that must match the response
+     */
+    private void assertExistingResource(final HttpStatus expectedStatus, boolean expectedError, final ResponseEntity<Resource<T>> responseEntity, final Resource<T> expectedResource) {
 
         if (expectedError)  // No exception thrown whereas one is expected
             fail("Should return a " + expectedStatus.value() + " " + expectedStatus.name() + " response");
@@ -1250,7 +3384,7 @@ public abstract class BaseRestElasticsearchTestCase<T, ID extends Serializable,
         else {  // No exception is expected, verify the expected HTTP status code and return the response
             assertThat(responseEntity, is(notNullValue()));
             assertThat(responseEntity.getStatusCode(), is(expectedStatus));
-            assertThat(responseEntity.getBody(), is(convertToResource(expectedEntity)));
+            assertSameResource(expectedResource, responseEntity.getBody());
         }
     }
 }
@@ -19,4 +19,13 @@ public interface DaoTestedMethod {
     public interface DeleteAllById extends DaoTestedMethod {}
     public interface Delete extends DaoTestedMethod {}
     public interface DeleteById extends DaoTestedMethod {}
+    public interface Latency extends DaoTestedMethod {}
+    public interface PaginationCrawl extends DaoTestedMethod {}
+    public interface DeepPaging extends DaoTestedMethod {}
+    public interface Concurrency extends DaoTestedMethod {}
+    public interface Scalability extends DaoTestedMethod {}
+    public interface SaveBulkVolume extends DaoTestedMethod {}
+    public interface BulkBackpressure extends DaoTestedMethod {}
+    public interface FindAllStreaming extends DaoTestedMethod {}
+    public interface QueryMethods extends DaoTestedMethod {}
 }
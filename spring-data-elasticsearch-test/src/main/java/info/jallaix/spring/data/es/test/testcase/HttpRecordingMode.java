@@ -0,0 +1,22 @@
+package info.jallaix.spring.data.es.test.testcase;
+
+/**
+ * Recording mode of the HTTP exchanges sent by the REST tests.
+ */
+public enum HttpRecordingMode {
+
+    /**
+     * Requests are sent to the server, without recording
+     */
+    OFF,
+
+    /**
+     * Requests are sent to the server and the exchanges are recorded
+     */
+    RECORD,
+
+    /**
+     * Requests are served from the recorded exchanges, without web service (the fixture is still loaded into the Elasticsearch node)
+     */
+    REPLAY
+}
@@ -0,0 +1,17 @@
+package info.jallaix.spring.data.es.test.testcase;
+
+/**
+ * Transport of the requests sent by the REST tests.
+ */
+public enum HttpTransport {
+
+    /**
+     * Requests are sent over HTTP to the embedded server
+     */
+    HTTP,
+
+    /**
+     * Requests are sent in-process to a MockMvc instance built on the web application context, without HTTP stack
+     */
+    MOCK_MVC
+}
@@ -0,0 +1,45 @@
+package info.jallaix.spring.data.es.test.testcase;
+
+import java.lang.annotation.*;
+
+/**
+ * <p/>
+ * Maximum latency allowed for a tested method category, declared on a test class.
+ * <p/>
+ * The category is a {@link DaoTestedMethod} or a {@link RestTestedMethod} interface.
+ * The latency is sampled on repeated calls of the category scenario, after some warm-up calls.
+ * Budgets are verified by the tests of the {@link DaoTestedMethod.Latency} and {@link RestTestedMethod.Latency} categories,
+ * that aren't played by default : they must be listed in the tested methods of the test class.
+ * A budget declared for the {@link DaoTestedMethod.QueryMethods} category applies to each query method of the repository.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Repeatable(LatencyBudgets.class)
+public @interface LatencyBudget {
+
+    /**
+     * Tested method category
+     */
+    Class<?> value();
+
+    /**
+     * Maximum 95th percentile latency in milliseconds
+     */
+    double p95() default Double.POSITIVE_INFINITY;
+
+    /**
+     * Maximum 99th percentile latency in milliseconds
+     */
+    double p99() default Double.POSITIVE_INFINITY;
+
+    /**
+     * Number of calls before sampling
+     */
+    int warmUpCalls() default 50;
+
+    /**
+     * Number of sampled calls
+     */
+    int sampledCalls() default 500;
+}
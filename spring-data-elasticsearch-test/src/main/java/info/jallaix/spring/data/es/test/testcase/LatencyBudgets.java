@@ -0,0 +1,17 @@
+package info.jallaix.spring.data.es.test.testcase;
+
+import java.lang.annotation.*;
+
+/**
+ * Container of the {@link LatencyBudget} annotations declared on a test class.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface LatencyBudgets {
+
+    /**
+     * Latency budgets
+     */
+    LatencyBudget[] value();
+}
@@ -13,4 +13,12 @@ public interface RestTestedMethod {
     public interface Update extends RestTestedMethod {}
     public interface Patch extends RestTestedMethod {}
     public interface Delete extends RestTestedMethod {}
+    public interface Load extends RestTestedMethod {}
+    public interface Latency extends RestTestedMethod {}
+    public interface PaginationCrawl extends RestTestedMethod {}
+    public interface DeepPaging extends RestTestedMethod {}
+    public interface Compression extends RestTestedMethod {}
+    public interface ConditionalGet extends RestTestedMethod {}
+    public interface LatencyInjection extends RestTestedMethod {}
+    public interface BinaryFormats extends RestTestedMethod {}
 }
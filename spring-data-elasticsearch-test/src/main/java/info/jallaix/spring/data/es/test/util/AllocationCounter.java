@@ -0,0 +1,65 @@
+package info.jallaix.spring.data.es.test.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * <p/>
+ * This class reads the number of bytes allocated by the current thread, from the JVM thread allocation counters.
+ * Counters are only available on JVMs that support them, such as HotSpot.
+ */
+public class AllocationCounter {
+
+    /**
+     * Thread management bean with allocation counters, {@code null} if they aren't supported
+     */
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = findThreadBean();
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Indicate if the allocation counters are available.
+     *
+     * @return {@code true} if the allocation counters are available
+     */
+    public static boolean isSupported() {
+        return THREAD_BEAN != null;
+    }
+
+    /**
+     * Get the number of bytes allocated by the current thread since it started.
+     *
+     * @return The number of allocated bytes, {@code -1} if the allocation counters aren't available
+     */
+    public static long getCurrentThreadAllocatedBytes() {
+        return THREAD_BEAN == null ? -1 : THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                                Private methods                                                 */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Find the thread management bean and enable its allocation counters.
+     *
+     * @return The thread management bean, {@code null} if allocation counters aren't supported
+     */
+    private static com.sun.management.ThreadMXBean findThreadBean() {
+
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean))
+            return null;
+
+        final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!allocationBean.isThreadAllocatedMemorySupported())
+            return null;
+        if (!allocationBean.isThreadAllocatedMemoryEnabled())
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        return allocationBean;
+    }
+}
@@ -0,0 +1,69 @@
+package info.jallaix.spring.data.es.test.util;
+
+import info.jallaix.spring.data.es.test.bean.FormatMeasure;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p/>
+ * Result of a binary format test, holding the payload sizes and serialization latencies of each method and media type.
+ */
+public class BinaryFormatReport {
+
+    /**
+     * Measures by method and media type
+     */
+    private final List<FormatMeasure> measures;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with measures
+     *
+     * @param measures The measures by method and media type
+     */
+    public BinaryFormatReport(List<FormatMeasure> measures) {
+        this.measures = Collections.unmodifiableList(measures);
+    }
+
+    /**
+     * Get the measures by method and media type.
+     *
+     * @return The measures by method and media type
+     */
+    public List<FormatMeasure> getMeasures() {
+        return measures;
+    }
+
+    /**
+     * Format the report as a table with one line per method and media type.
+     * Latencies are medians, in milliseconds.
+     *
+     * @return The formatted report
+     */
+    public String format() {
+
+        final StringBuilder builder = new StringBuilder(String.format("%-16s %-28s %10s %10s %10s %10s %10s%n",
+                "method", "media type", "req. bytes", "resp. bytes", "encode", "exchange", "decode"));
+
+        measures.forEach(measure -> builder.append(String.format("%-16s %-28s %10d %10d %10.3f %10.3f %10.3f%n",
+                measure.getMethod(),
+                measure.getMediaType(),
+                measure.getRequestBytes(),
+                measure.getResponseBytes(),
+                measure.getEncodeLatency().getPercentileMicros(50) / 1000.0,
+                measure.getExchangeLatency().getPercentileMicros(50) / 1000.0,
+                measure.getDecodeLatency().getPercentileMicros(50) / 1000.0)));
+
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
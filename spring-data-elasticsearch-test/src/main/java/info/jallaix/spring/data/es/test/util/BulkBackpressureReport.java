@@ -0,0 +1,149 @@
+package info.jallaix.spring.data.es.test.util;
+
+import org.elasticsearch.threadpool.ThreadPoolStats;
+
+/**
+ * <p/>
+ * Result of a bulk backpressure test, comparing the rejections surfaced to the callers
+ * with the rejections counted by the node bulk thread pool.
+ */
+public class BulkBackpressureReport {
+
+    /**
+     * Latency report of the bulk saves, rejected saves excluded from the errors
+     */
+    private final LoadReport<String> saveReport;
+
+    /**
+     * Number of bulk saves with rejected documents
+     */
+    private final long rejectedSaves;
+
+    /**
+     * Number of rejected documents
+     */
+    private final long rejectedDocuments;
+
+    /**
+     * Number of acknowledged documents
+     */
+    private final long acknowledgedDocuments;
+
+    /**
+     * Bulk thread pool statistics before the saves
+     */
+    private final ThreadPoolStats.Stats poolStatsBefore;
+
+    /**
+     * Bulk thread pool statistics after the saves
+     */
+    private final ThreadPoolStats.Stats poolStatsAfter;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with save results and thread pool statistics
+     *
+     * @param saveReport            The latency report of the bulk saves, rejected saves excluded from the errors
+     * @param rejectedSaves         The number of bulk saves with rejected documents
+     * @param rejectedDocuments     The number of rejected documents
+     * @param acknowledgedDocuments The number of acknowledged documents
+     * @param poolStatsBefore       The bulk thread pool statistics before the saves
+     * @param poolStatsAfter        The bulk thread pool statistics after the saves
+     */
+    public BulkBackpressureReport(LoadReport<String> saveReport, long rejectedSaves, long rejectedDocuments, long acknowledgedDocuments,
+                                  ThreadPoolStats.Stats poolStatsBefore, ThreadPoolStats.Stats poolStatsAfter) {
+
+        this.saveReport = saveReport;
+        this.rejectedSaves = rejectedSaves;
+        this.rejectedDocuments = rejectedDocuments;
+        this.acknowledgedDocuments = acknowledgedDocuments;
+        this.poolStatsBefore = poolStatsBefore;
+        this.poolStatsAfter = poolStatsAfter;
+    }
+
+    /**
+     * Get the latency report of the bulk saves.
+     *
+     * @return The latency report, rejected saves excluded from the errors
+     */
+    public LoadReport<String> getSaveReport() {
+        return saveReport;
+    }
+
+    /**
+     * Get the number of bulk saves with rejected documents, as surfaced to the callers.
+     *
+     * @return The number of rejected saves
+     */
+    public long getRejectedSaves() {
+        return rejectedSaves;
+    }
+
+    /**
+     * Get the number of rejected documents, as surfaced to the callers.
+     *
+     * @return The number of rejected documents
+     */
+    public long getRejectedDocuments() {
+        return rejectedDocuments;
+    }
+
+    /**
+     * Get the number of acknowledged documents.
+     *
+     * @return The number of acknowledged documents
+     */
+    public long getAcknowledgedDocuments() {
+        return acknowledgedDocuments;
+    }
+
+    /**
+     * Get the number of tasks rejected by the node bulk thread pool during the saves.
+     *
+     * @return The number of rejected tasks
+     */
+    public long getPoolRejected() {
+        return poolStatsAfter.getRejected() - poolStatsBefore.getRejected();
+    }
+
+    /**
+     * Get the number of tasks completed by the node bulk thread pool during the saves.
+     *
+     * @return The number of completed tasks
+     */
+    public long getPoolCompleted() {
+        return poolStatsAfter.getCompleted() - poolStatsBefore.getCompleted();
+    }
+
+    /**
+     * Get the number of failed bulk saves, rejections excluded.
+     *
+     * @return The number of failed bulk saves
+     */
+    public long getErrorCount() {
+        return saveReport.getErrorCount();
+    }
+
+    /**
+     * Format the report as the save latency table, followed by the rejected and completed counts.
+     *
+     * @return The formatted report
+     */
+    public String format() {
+
+        return saveReport.format(key -> key)
+                + String.format("Caller side : %d rejected saves, %d rejected documents, %d acknowledged documents%n",
+                rejectedSaves, rejectedDocuments, acknowledgedDocuments)
+                + String.format("Bulk thread pool : %d rejected tasks, %d completed tasks, largest %d threads%n",
+                getPoolRejected(), getPoolCompleted(), poolStatsAfter.getLargest());
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
@@ -0,0 +1,70 @@
+package info.jallaix.spring.data.es.test.util;
+
+import info.jallaix.spring.data.es.test.bean.EndpointCompression;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p/>
+ * Result of a compression test, holding the response sizes and latencies of each endpoint with and without compression.
+ */
+public class CompressionReport {
+
+    /**
+     * Measures by endpoint
+     */
+    private final List<EndpointCompression> endpoints;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with endpoint measures
+     *
+     * @param endpoints The measures by endpoint
+     */
+    public CompressionReport(List<EndpointCompression> endpoints) {
+        this.endpoints = Collections.unmodifiableList(endpoints);
+    }
+
+    /**
+     * Get the measures by endpoint.
+     *
+     * @return The measures by endpoint
+     */
+    public List<EndpointCompression> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Format the report as a table with one line per endpoint.
+     *
+     * @return The formatted report
+     */
+    public String format() {
+
+        final StringBuilder builder = new StringBuilder(String.format("%-24s %10s %12s %12s %7s %12s %12s %12s %12s%n",
+                "endpoint", "encoding", "raw bytes", "sent bytes", "ratio", "raw p50", "enc. p50", "raw p99", "enc. p99"));
+
+        endpoints.forEach(endpoint -> builder.append(String.format("%-24s %10s %12d %12d %7.3f %12.3f %12.3f %12.3f %12.3f%n",
+                endpoint.getEndpoint(),
+                endpoint.getContentEncoding(),
+                endpoint.getIdentityBytes(),
+                endpoint.getEncodedBytes(),
+                endpoint.getIdentityBytes() == 0 ? 1.0 : (double) endpoint.getEncodedBytes() / endpoint.getIdentityBytes(),
+                endpoint.getIdentityLatency().getPercentileMicros(50) / 1000.0,
+                endpoint.getEncodedLatency().getPercentileMicros(50) / 1000.0,
+                endpoint.getIdentityLatency().getPercentileMicros(99) / 1000.0,
+                endpoint.getEncodedLatency().getPercentileMicros(99) / 1000.0)));
+
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
@@ -0,0 +1,115 @@
+package info.jallaix.spring.data.es.test.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.fail;
+
+/**
+ * <p/>
+ * This class runs independent assertion scenarios concurrently, with a bounded number of threads.
+ * <p/>
+ * All scenarios are run even if some of them fail. The failures are then aggregated into a single {@link AssertionError},
+ * listing each failed scenario with its failure message.
+ */
+public class ConcurrentAssertions {
+
+    /**
+     * Maximum number of scenarios run at the same time
+     */
+    private final int parallelism;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with parallelism
+     *
+     * @param parallelism The maximum number of scenarios run at the same time
+     */
+    public ConcurrentAssertions(int parallelism) {
+
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("The parallelism must be positive");
+
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Run the scenarios concurrently and fail with all their failures, if any.
+     *
+     * @param scenarios The scenarios to run, by key
+     * @param <K>       The scenario key type
+     */
+    public <K> void assertAll(Map<K, Runnable> scenarios) {
+
+        final Map<K, Throwable> failures = runAll(scenarios);
+        if (failures.isEmpty())
+            return;
+
+        final StringBuilder message = new StringBuilder()
+                .append(failures.size()).append(" of ").append(scenarios.size()).append(" scenarios failed :");
+        failures.forEach((key, failure) -> message
+                .append(System.lineSeparator()).append("- ").append(key)
+                .append(System.lineSeparator()).append("  ").append(failure));
+
+        fail(message.toString());
+    }
+
+    /**
+     * Run the scenarios concurrently and get their failures.
+     *
+     * @param scenarios The scenarios to run, by key
+     * @param <K>       The scenario key type
+     * @return The failures of the failed scenarios, by key and in scenario order
+     */
+    public <K> Map<K, Throwable> runAll(Map<K, Runnable> scenarios) {
+
+        final Map<K, Throwable> failures = new LinkedHashMap<>();
+        if (scenarios.isEmpty())
+            return failures;
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, scenarios.size()));
+        try {
+            // Submit all scenarios, a failure is returned instead of being thrown
+            final List<K> keys = new ArrayList<>(scenarios.keySet());
+            final List<Future<Throwable>> results = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                final Runnable scenario = scenarios.get(key);
+                results.add(executor.submit(() -> {
+                    try {
+                        scenario.run();
+                        return null;
+                    } catch (Exception | AssertionError e) {
+                        return e;
+                    }
+                }));
+            }
+
+            // Collect failures in scenario order
+            for (int i = 0; i < keys.size(); i++) {
+                final Throwable failure = results.get(i).get();
+                if (failure != null)
+                    failures.put(keys.get(i), failure);
+            }
+
+            return failures;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
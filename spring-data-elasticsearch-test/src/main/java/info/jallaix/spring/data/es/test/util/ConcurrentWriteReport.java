@@ -0,0 +1,82 @@
+package info.jallaix.spring.data.es.test.util;
+
+import info.jallaix.spring.data.es.test.bean.ConcurrentWrites;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p/>
+ * Result of a concurrent write test, holding the throughput, latency and version conflicts by number of threads.
+ */
+public class ConcurrentWriteReport {
+
+    /**
+     * Results by number of threads
+     */
+    private final List<ConcurrentWrites> results;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with results
+     *
+     * @param results The results by number of threads
+     */
+    public ConcurrentWriteReport(List<ConcurrentWrites> results) {
+        this.results = Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Get the results by number of threads.
+     *
+     * @return The results by number of threads
+     */
+    public List<ConcurrentWrites> getResults() {
+        return results;
+    }
+
+    /**
+     * Get the number of failed writes over all numbers of threads, version conflicts excluded.
+     *
+     * @return The number of failed writes
+     */
+    public long getErrorCount() {
+        return results.stream().mapToLong(result -> result.getLatency().getErrorCount()).sum();
+    }
+
+    /**
+     * Format the report as a table with one line per number of threads.
+     *
+     * @return The formatted report
+     */
+    public String format() {
+
+        final StringBuilder builder = new StringBuilder(String.format("%8s %10s %10s %8s %10s %10s %10s%n",
+                "threads", "writes", "conflicts", "errors", "writes/s", "p50 (ms)", "p99 (ms)"));
+
+        results.forEach(result -> builder.append(String.format("%8d %10d %10d %8d %10.1f %10.3f %10.3f%n",
+                result.getThreads(),
+                result.getLatency().getCount(),
+                result.getConflicts(),
+                result.getLatency().getErrorCount(),
+                result.getLatency().getThroughput(result.getElapsedNanos()),
+                result.getLatency().getPercentileMicros(50) / 1000.0,
+                result.getLatency().getPercentileMicros(99) / 1000.0)));
+
+        results.forEach(result -> {
+            if (result.getLatency().getFirstError() != null)
+                builder.append(String.format("First error with %d threads : %s%n", result.getThreads(), result.getLatency().getFirstError()));
+        });
+
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
@@ -0,0 +1,160 @@
+package info.jallaix.spring.data.es.test.util;
+
+/**
+ * <p/>
+ * Power law {@code cost = coefficient * size ^ exponent} fitted on measured costs, by least squares on their logarithms.
+ * <p/>
+ * An exponent close to 1 means the cost grows linearly with the size, a higher exponent means it grows super-linearly.
+ */
+public class CostCurve {
+
+    /**
+     * Minimum number of points for the exponent to be significant
+     */
+    public static final int MIN_POINTS = 3;
+
+    /**
+     * Fitted coefficient
+     */
+    private final double coefficient;
+
+    /**
+     * Fitted exponent
+     */
+    private final double exponent;
+
+    /**
+     * Coefficient of determination of the fit, between 0 and 1
+     */
+    private final double rSquared;
+
+    /**
+     * Number of fitted points
+     */
+    private final int pointCount;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with fitted values
+     *
+     * @param coefficient The fitted coefficient
+     * @param exponent    The fitted exponent
+     * @param rSquared    The coefficient of determination of the fit
+     * @param pointCount  The number of fitted points
+     */
+    public CostCurve(double coefficient, double exponent, double rSquared, int pointCount) {
+
+        this.coefficient = coefficient;
+        this.exponent = exponent;
+        this.rSquared = rSquared;
+        this.pointCount = pointCount;
+    }
+
+    /**
+     * Fit a power law on measured costs. Points with a size or a cost that isn't positive are ignored.
+     *
+     * @param sizes The measured sizes
+     * @param costs The measured costs, for each size
+     * @return The fitted curve, with a {@code NaN} exponent if less than 2 points can be fitted
+     */
+    public static CostCurve fit(double[] sizes, double[] costs) {
+
+        if (sizes.length != costs.length)
+            throw new IllegalArgumentException("There must be one cost for each size");
+
+        // Sums over the logarithms of the fitted points
+        int n = 0;
+        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0, sumYY = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] <= 0 || costs[i] <= 0)
+                continue;
+
+            final double x = Math.log(sizes[i]);
+            final double y = Math.log(costs[i]);
+            n++;
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+            sumYY += y * y;
+        }
+
+        final double varianceX = n * sumXX - sumX * sumX;
+        if (n < 2 || varianceX == 0)
+            return new CostCurve(Double.NaN, Double.NaN, Double.NaN, n);
+
+        final double exponent = (n * sumXY - sumX * sumY) / varianceX;
+        final double intercept = (sumY - exponent * sumX) / n;
+        final double varianceY = n * sumYY - sumY * sumY;
+        final double rSquared = varianceY == 0 ? 1 : Math.pow(n * sumXY - sumX * sumY, 2) / (varianceX * varianceY);
+
+        return new CostCurve(Math.exp(intercept), exponent, rSquared, n);
+    }
+
+    /**
+     * Get the fitted coefficient.
+     *
+     * @return The fitted coefficient
+     */
+    public double getCoefficient() {
+        return coefficient;
+    }
+
+    /**
+     * Get the fitted exponent.
+     *
+     * @return The fitted exponent
+     */
+    public double getExponent() {
+        return exponent;
+    }
+
+    /**
+     * Get the coefficient of determination of the fit.
+     *
+     * @return The coefficient of determination, between 0 and 1
+     */
+    public double getRSquared() {
+        return rSquared;
+    }
+
+    /**
+     * Get the number of fitted points.
+     *
+     * @return The number of fitted points
+     */
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    /**
+     * Indicate if the cost grows faster than allowed.
+     * The growth is never considered excessive with less than {@link #MIN_POINTS} fitted points.
+     *
+     * @param maxExponent The maximum allowed exponent
+     * @return {@code true} if the fitted exponent is above the maximum one
+     */
+    public boolean isSteeperThan(double maxExponent) {
+        return pointCount >= MIN_POINTS && exponent > maxExponent;
+    }
+
+    /**
+     * Indicate if the cost grows faster than allowed, on a fit good enough for the exponent not to be noise.
+     *
+     * @param maxExponent The maximum allowed exponent
+     * @param minRSquared The minimum coefficient of determination of the fit
+     * @return {@code true} if the fitted exponent is above the maximum one and the fit is good enough
+     */
+    public boolean isSteeperThan(double maxExponent, double minRSquared) {
+        return isSteeperThan(maxExponent) && rSquared >= minRSquared;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("cost = %.4g * size^%.3f (r2 %.3f, %d points)", coefficient, exponent, rSquared, pointCount);
+    }
+}
@@ -0,0 +1,132 @@
+package info.jallaix.spring.data.es.test.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * <p/>
+ * This class measures the latency of page fetches at increasing page offsets, then fits a {@link CostCurve} on the
+ * additional latency of each offset compared with the first page.
+ * <p/>
+ * Probed pages are the first one, then pages 1, 2, 4, 8... up to the last one.
+ * With {@code from/size} paging, each shard collects {@code from + size} hits for a page,
+ * so the additional latency of deep pages reveals how the collection cost grows with the offset.
+ */
+public class DeepPagingProbe {
+
+    /**
+     * Number of calls for warm-up on each probed page
+     */
+    private final int warmUpCalls;
+
+    /**
+     * Number of sampled calls on each probed page
+     */
+    private final int sampledCalls;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with sampling settings
+     *
+     * @param warmUpCalls  The number of calls for warm-up on each probed page
+     * @param sampledCalls The number of sampled calls on each probed page
+     */
+    public DeepPagingProbe(int warmUpCalls, int sampledCalls) {
+
+        if (sampledCalls <= 0)
+            throw new IllegalArgumentException("The number of sampled calls must be positive");
+
+        this.warmUpCalls = warmUpCalls;
+        this.sampledCalls = sampledCalls;
+    }
+
+    /**
+     * Measure the page fetch latency at increasing page offsets.
+     *
+     * @param pageCount   The number of pages
+     * @param pageSize    The page size
+     * @param pageFetcher Function fetching a page from its number, starting from 0
+     * @return The deep paging report, with statistics by page offset
+     */
+    public DeepPagingReport probe(int pageCount, int pageSize, IntConsumer pageFetcher) {
+
+        final Map<Integer, LoadStatistics> statistics = new LinkedHashMap<>();
+        final long start = System.nanoTime();
+
+        for (int page : getProbedPages(pageCount)) {
+
+            for (int i = 0; i < warmUpCalls; i++)
+                pageFetcher.accept(page);
+
+            final LoadStatistics pageStatistics = new LoadStatistics();
+            for (int i = 0; i < sampledCalls; i++) {
+                final long callStart = System.nanoTime();
+                pageFetcher.accept(page);
+                pageStatistics.recordSuccess(System.nanoTime() - callStart);
+            }
+            statistics.put(page * pageSize, pageStatistics);
+        }
+
+        final LoadReport<Integer> latencyReport = new LoadReport<>(statistics, System.nanoTime() - start);
+
+        return new DeepPagingReport(latencyReport, fitCostCurve(statistics, pageSize));
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                                Private methods                                                 */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Get the probed page numbers : 0, 1, 2, 4, 8... and the last page.
+     *
+     * @param pageCount The number of pages
+     * @return The probed page numbers
+     */
+    private List<Integer> getProbedPages(int pageCount) {
+
+        final List<Integer> pages = new ArrayList<>();
+        if (pageCount <= 0)
+            return pages;
+
+        pages.add(0);
+        for (int page = 1; page < pageCount - 1; page *= 2)
+            pages.add(page);
+        if (pageCount > 1)
+            pages.add(pageCount - 1);
+
+        return pages;
+    }
+
+    /**
+     * Fit a cost curve on the median latency of each deep page, minus the median latency of the first page.
+     * The size of a page is the number of hits collected for it : its offset plus the page size.
+     *
+     * @param statistics The latency statistics by page offset
+     * @param pageSize   The page size
+     * @return The fitted cost curve
+     */
+    private CostCurve fitCostCurve(Map<Integer, LoadStatistics> statistics, int pageSize) {
+
+        final List<Integer> offsets = new ArrayList<>(statistics.keySet());
+        if (offsets.isEmpty())
+            return CostCurve.fit(new double[0], new double[0]);
+
+        final long baseline = statistics.get(offsets.get(0)).getPercentileMicros(50);
+        final double[] sizes = new double[offsets.size() - 1];
+        final double[] costs = new double[offsets.size() - 1];
+        for (int i = 1; i < offsets.size(); i++) {
+            sizes[i - 1] = offsets.get(i) + pageSize;
+            costs[i - 1] = statistics.get(offsets.get(i)).getPercentileMicros(50) - baseline;
+        }
+
+        return CostCurve.fit(sizes, costs);
+    }
+}
@@ -0,0 +1,68 @@
+package info.jallaix.spring.data.es.test.util;
+
+/**
+ * <p/>
+ * Result of a {@link DeepPagingProbe deep paging probe}, holding the latency statistics by page offset
+ * and the cost curve fitted on them.
+ */
+public class DeepPagingReport {
+
+    /**
+     * Latency report, by page offset
+     */
+    private final LoadReport<Integer> latencyReport;
+
+    /**
+     * Cost curve of the additional latency of deep pages
+     */
+    private final CostCurve costCurve;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with latency report and cost curve
+     *
+     * @param latencyReport The latency report, by page offset
+     * @param costCurve     The cost curve of the additional latency of deep pages
+     */
+    public DeepPagingReport(LoadReport<Integer> latencyReport, CostCurve costCurve) {
+
+        this.latencyReport = latencyReport;
+        this.costCurve = costCurve;
+    }
+
+    /**
+     * Get the latency report.
+     *
+     * @return The latency report, by page offset
+     */
+    public LoadReport<Integer> getLatencyReport() {
+        return latencyReport;
+    }
+
+    /**
+     * Get the cost curve of the additional latency of deep pages, in microseconds by number of collected hits.
+     *
+     * @return The cost curve
+     */
+    public CostCurve getCostCurve() {
+        return costCurve;
+    }
+
+    /**
+     * Format the report as a latency table by page offset, followed by the cost curve.
+     *
+     * @return The formatted report
+     */
+    public String format() {
+        return latencyReport.format(offset -> "from " + offset) + "Deep page cost : " + costCurve + System.lineSeparator();
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
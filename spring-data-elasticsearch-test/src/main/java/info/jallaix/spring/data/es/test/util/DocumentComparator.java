@@ -0,0 +1,327 @@
+package info.jallaix.spring.data.es.test.util;
+
+import org.springframework.data.annotation.Transient;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p/>
+ * Field-wise comparator for documents, built once per document class.
+ * <p/>
+ * Each persistent field is read through a {@link MethodHandle} getter. Primitive fields are compared without boxing,
+ * so that comparing two equal documents doesn't allocate anything.
+ * Static, {@code transient} and {@link Transient @Transient} fields are ignored.
+ *
+ * @param <T> The document type
+ */
+public class DocumentComparator<T> {
+
+    /**
+     * Comparators already built, by document class
+     */
+    private static final ConcurrentMap<Class<?>, DocumentComparator<?>> comparators = new ConcurrentHashMap<>();
+
+    /**
+     * Document class
+     */
+    private final Class<T> documentClass;
+
+    /**
+     * Accessors to the compared fields
+     */
+    private final FieldAccessor[] accessors;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Get the comparator for a document class, building it on first use.
+     *
+     * @param <T>           The document type
+     * @param documentClass The document class
+     * @return The document comparator
+     */
+    public static <T> DocumentComparator<T> forClass(Class<T> documentClass) {
+
+        @SuppressWarnings("unchecked")
+        DocumentComparator<T> comparator = (DocumentComparator<T>) comparators.computeIfAbsent(documentClass, DocumentComparator::new);
+        return comparator;
+    }
+
+    /**
+     * Determine if two documents hold the same field values.
+     *
+     * @param expected The expected document
+     * @param actual   The actual document
+     * @return {@code true} if both documents match, else {@code false}
+     */
+    public boolean matches(T expected, T actual) {
+
+        if (expected == actual)
+            return true;
+        if (expected == null || actual == null || actual.getClass() != expected.getClass())
+            return false;
+
+        for (FieldAccessor accessor : accessors)
+            if (!accessor.matches(expected, actual))
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Describe the field differences between two documents.
+     *
+     * @param expected The expected document
+     * @param actual   The actual document
+     * @return {@code null} if both documents match, else a description of their differences
+     */
+    public String describeDifferences(T expected, T actual) {
+
+        if (matches(expected, actual))
+            return null;
+        if (expected == null || actual == null)
+            return "expected <" + expected + "> but was <" + actual + ">";
+        if (actual.getClass() != expected.getClass())
+            return "expected type <" + expected.getClass().getName() + "> but was <" + actual.getClass().getName() + ">";
+
+        final StringJoiner differences = new StringJoiner(", ");
+        for (FieldAccessor accessor : accessors)
+            if (!accessor.matches(expected, actual))
+                differences.add(accessor.name + " : expected <" + format(accessor.get(expected)) + "> but was <" + format(accessor.get(actual)) + ">");
+
+        return differences.toString();
+    }
+
+    /**
+     * Get the document class.
+     *
+     * @return The document class
+     */
+    public Class<T> getDocumentClass() {
+        return documentClass;
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                                Private methods                                                 */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor building the field accessors of a document class.
+     *
+     * @param documentClass The document class
+     */
+    private DocumentComparator(Class<T> documentClass) {
+
+        this.documentClass = documentClass;
+
+        final List<FieldAccessor> accessorList = new ArrayList<>();
+        for (Class<?> type = documentClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers()) || field.isAnnotationPresent(Transient.class))
+                    continue;
+
+                accessorList.add(createAccessor(field));
+            }
+        }
+        this.accessors = accessorList.toArray(new FieldAccessor[accessorList.size()]);
+    }
+
+    /**
+     * Format a field value for reporting, displaying array contents.
+     *
+     * @param value The field value
+     * @return The formatted value
+     */
+    private static String format(Object value) {
+
+        if (value == null || !value.getClass().isArray())
+            return String.valueOf(value);
+
+        final String formatted = Arrays.deepToString(new Object[]{value});
+        return formatted.substring(1, formatted.length() - 1);
+    }
+
+    /**
+     * Create an accessor for a field, specialized on the field type.
+     *
+     * @param field The field
+     * @return The field accessor
+     */
+    private static FieldAccessor createAccessor(Field field) {
+
+        final MethodHandle getter;
+        try {
+            field.setAccessible(true);
+            getter = MethodHandles.lookup().unreflectGetter(field);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Impossible to access " + field.getDeclaringClass().getName() + "." + field.getName(), e);
+        }
+
+        final Class<?> fieldType = field.getType();
+        if (fieldType == boolean.class)
+            return new BooleanAccessor(field.getName(), getter);
+        else if (fieldType == long.class)
+            return new LongAccessor(field.getName(), getter);
+        else if (fieldType == double.class || fieldType == float.class)
+            return new DoubleAccessor(field.getName(), getter);
+        else if (fieldType.isPrimitive())
+            return new IntAccessor(field.getName(), getter);
+        else
+            return new ObjectAccessor(field.getName(), getter);
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Field accessors                                                  */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Accessor to a document field.
+     */
+    private static abstract class FieldAccessor {
+
+        /**
+         * Field name
+         */
+        final String name;
+
+        /**
+         * Getter adapted to the accessor type
+         */
+        final MethodHandle getter;
+
+        /**
+         * Constructor adapting a field getter to a return type.
+         *
+         * @param name       The field name
+         * @param getter     The field getter
+         * @param returnType The return type to adapt the getter to
+         */
+        FieldAccessor(String name, MethodHandle getter, Class<?> returnType) {
+            this.name = name;
+            this.getter = getter.asType(MethodType.methodType(returnType, Object.class));
+        }
+
+        /**
+         * Determine if a field holds the same value in two documents of the same class.
+         *
+         * @param expected The expected document
+         * @param actual   The actual document
+         * @return {@code true} if both values match, else {@code false}
+         */
+        final boolean matches(Object expected, Object actual) {
+            try {
+                return doMatches(expected, actual);
+            } catch (Throwable t) {
+                throw new RuntimeException("Impossible to compare field " + name, t);
+            }
+        }
+
+        /**
+         * Get the field value of a document, for reporting.
+         *
+         * @param document The document
+         * @return The field value
+         */
+        final Object get(Object document) {
+            try {
+                return getter.invoke(document);
+            } catch (Throwable t) {
+                throw new RuntimeException("Impossible to read field " + name, t);
+            }
+        }
+
+        abstract boolean doMatches(Object expected, Object actual) throws Throwable;
+    }
+
+    /**
+     * Accessor to a reference field, compared with {@link Objects#deepEquals(Object, Object)}.
+     */
+    private static final class ObjectAccessor extends FieldAccessor {
+
+        ObjectAccessor(String name, MethodHandle getter) {
+            super(name, getter, Object.class);
+        }
+
+        @Override
+        boolean doMatches(Object expected, Object actual) throws Throwable {
+            return Objects.deepEquals((Object) getter.invokeExact(expected), (Object) getter.invokeExact(actual));
+        }
+    }
+
+    /**
+     * Accessor to an {@code int}, {@code short}, {@code byte} or {@code char} field.
+     */
+    private static final class IntAccessor extends FieldAccessor {
+
+        IntAccessor(String name, MethodHandle getter) {
+            super(name, getter, int.class);
+        }
+
+        @Override
+        boolean doMatches(Object expected, Object actual) throws Throwable {
+            return (int) getter.invokeExact(expected) == (int) getter.invokeExact(actual);
+        }
+    }
+
+    /**
+     * Accessor to a {@code long} field.
+     */
+    private static final class LongAccessor extends FieldAccessor {
+
+        LongAccessor(String name, MethodHandle getter) {
+            super(name, getter, long.class);
+        }
+
+        @Override
+        boolean doMatches(Object expected, Object actual) throws Throwable {
+            return (long) getter.invokeExact(expected) == (long) getter.invokeExact(actual);
+        }
+    }
+
+    /**
+     * Accessor to a {@code double} or {@code float} field, compared like {@link Double#equals(Object)}.
+     */
+    private static final class DoubleAccessor extends FieldAccessor {
+
+        DoubleAccessor(String name, MethodHandle getter) {
+            super(name, getter, double.class);
+        }
+
+        @Override
+        boolean doMatches(Object expected, Object actual) throws Throwable {
+            return Double.compare((double) getter.invokeExact(expected), (double) getter.invokeExact(actual)) == 0;
+        }
+    }
+
+    /**
+     * Accessor to a {@code boolean} field.
+     */
+    private static final class BooleanAccessor extends FieldAccessor {
+
+        BooleanAccessor(String name, MethodHandle getter) {
+            super(name, getter, boolean.class);
+        }
+
+        @Override
+        boolean doMatches(Object expected, Object actual) throws Throwable {
+            return (boolean) getter.invokeExact(expected) == (boolean) getter.invokeExact(actual);
+        }
+    }
+}
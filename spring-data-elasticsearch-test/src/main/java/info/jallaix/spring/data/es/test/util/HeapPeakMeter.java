@@ -0,0 +1,45 @@
+package info.jallaix.spring.data.es.test.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * <p/>
+ * This class measures the peak heap usage of the JVM, from the peak usage of its heap memory pools.
+ * <p/>
+ * The peak is the sum of the pool peaks, that may not be reached at the same time : it is an upper bound of the actual peak.
+ * With a local Elasticsearch node, the heap usage of the node is included.
+ */
+public class HeapPeakMeter {
+
+    /**
+     * Heap memory pools
+     */
+    private static final List<MemoryPoolMXBean> HEAP_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .collect(Collectors.toList());
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Reset the peak usage of the heap memory pools to their current usage.
+     */
+    public static void reset() {
+        HEAP_POOLS.forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    /**
+     * Get the peak heap usage since the last reset.
+     *
+     * @return The peak heap usage in bytes
+     */
+    public static long getPeakBytes() {
+        return HEAP_POOLS.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+}
@@ -0,0 +1,117 @@
+package info.jallaix.spring.data.es.test.util;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p/>
+ * This class gathers connection metrics of the pooled HTTP client used by REST tests.
+ * Comparing the number of opened connections with the number of sent requests shows how well connections are reused.
+ */
+public class HttpConnectionMetrics {
+
+    /**
+     * Pooling connection manager
+     */
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    /**
+     * Number of sent requests
+     */
+    private final AtomicLong requestCount = new AtomicLong();
+
+    /**
+     * Number of opened connections
+     */
+    private final AtomicLong connectionCount = new AtomicLong();
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with pooling connection manager
+     *
+     * @param connectionManager The pooling connection manager
+     */
+    public HttpConnectionMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    /**
+     * Record a sent request.
+     */
+    public void requestSent() {
+        requestCount.incrementAndGet();
+    }
+
+    /**
+     * Record an opened connection.
+     */
+    public void connectionOpened() {
+        connectionCount.incrementAndGet();
+    }
+
+    /**
+     * Get the number of sent requests.
+     *
+     * @return The number of sent requests
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Get the number of opened connections.
+     *
+     * @return The number of opened connections
+     */
+    public long getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Get the number of requests sent on an already opened connection.
+     *
+     * @return The number of reused connections
+     */
+    public long getReusedCount() {
+        return Math.max(0, requestCount.get() - connectionCount.get());
+    }
+
+    /**
+     * Get the ratio of requests sent on an already opened connection.
+     *
+     * @return The connection reuse ratio, between 0 and 1
+     */
+    public double getReuseRatio() {
+
+        final long requests = requestCount.get();
+        return requests == 0 ? 0 : getReusedCount() / (double) requests;
+    }
+
+    /**
+     * Get the current statistics of the connection pool (leased, pending, available connections).
+     *
+     * @return The connection pool statistics
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Reset request and connection counters.
+     */
+    public void reset() {
+        requestCount.set(0);
+        connectionCount.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "requests=" + getRequestCount() + ", connections=" + getConnectionCount() + ", reuseRatio=" + String.format("%.3f", getReuseRatio()) + ", pool=" + getPoolStats();
+    }
+}
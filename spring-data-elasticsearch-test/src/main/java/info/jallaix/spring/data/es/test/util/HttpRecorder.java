@@ -0,0 +1,174 @@
+package info.jallaix.spring.data.es.test.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import info.jallaix.spring.data.es.test.bean.HttpRecording;
+import info.jallaix.spring.data.es.test.bean.RecordedExchange;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * <p/>
+ * This REST template interceptor records the HTTP exchanges sent to the server, so that they can be served
+ * later by a {@link HttpReplayRequestFactory} without the server.
+ * <p/>
+ * Each response body is fully read and handed back to the REST template as a buffered response.
+ * An instance is thread-safe.
+ */
+public class HttpRecorder implements ClientHttpRequestInterceptor {
+
+    /**
+     * JSON mapper for the recordings
+     */
+    static final ObjectMapper JSON_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * Hash of the test fixture the exchanges are recorded with
+     */
+    private final String fixtureHash;
+
+    /**
+     * File the recording is written to
+     */
+    private final File file;
+
+    /**
+     * Recorded exchanges, in sending order
+     */
+    private final List<RecordedExchange> exchanges = new ArrayList<>();
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with fixture hash and recording file
+     *
+     * @param fixtureHash The hash of the test fixture the exchanges are recorded with
+     * @param file        The file the recording is written to
+     */
+    public HttpRecorder(String fixtureHash, File file) {
+
+        this.fixtureHash = fixtureHash;
+        this.file = file;
+    }
+
+    /**
+     * Get the hash of the test fixture the exchanges are recorded with.
+     *
+     * @return The fixture hash
+     */
+    public String getFixtureHash() {
+        return fixtureHash;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+
+        try (ClientHttpResponse response = execution.execute(request, body)) {
+
+            final byte[] responseBody;
+            try (InputStream input = response.getBody()) {
+                responseBody = StreamUtils.copyToByteArray(input);
+            }
+
+            final RecordedExchange exchange = new RecordedExchange(
+                    request.getMethod().name(),
+                    getPathAndQuery(request.getURI()),
+                    body,
+                    response.getRawStatusCode(),
+                    new LinkedHashMap<>(response.getHeaders()),
+                    responseBody);
+            synchronized (exchanges) {
+                exchanges.add(exchange);
+            }
+
+            return toResponse(exchange);
+        }
+    }
+
+    /**
+     * Indicate if no exchange was recorded.
+     *
+     * @return {@code true} if no exchange was recorded
+     */
+    public boolean isEmpty() {
+        synchronized (exchanges) {
+            return exchanges.isEmpty();
+        }
+    }
+
+    /**
+     * Get the file the recording is written to.
+     *
+     * @return The recording file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Write the recorded exchanges and the fixture hash to the JSON recording file, creating its directory if needed.
+     *
+     * @throws IOException If the recording can't be written
+     */
+    public void writeJson() throws IOException {
+
+        if (file.getParentFile() != null && !file.getParentFile().isDirectory() && !file.getParentFile().mkdirs())
+            throw new IOException("Could not create directory " + file.getParentFile());
+
+        synchronized (exchanges) {
+            JSON_MAPPER.writeValue(file, new HttpRecording(fixtureHash, exchanges));
+        }
+    }
+
+    /**
+     * Get the path and the query of a URI, the part of a request that doesn't depend on the server location.
+     *
+     * @param uri The request URI
+     * @return The raw path and query of the URI
+     */
+    public static String getPathAndQuery(URI uri) {
+        return uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                                Private methods                                                 */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Build a buffered response from a recorded exchange.
+     *
+     * @param exchange The recorded exchange
+     * @return The response
+     * @throws IOException If the recorded status code is unknown
+     */
+    static ClientHttpResponse toResponse(RecordedExchange exchange) throws IOException {
+
+        final MockClientHttpResponse response;
+        try {
+            response = new MockClientHttpResponse(exchange.getResponseBody() == null ? new byte[0] : exchange.getResponseBody(), HttpStatus.valueOf(exchange.getStatus()));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown recorded status code " + exchange.getStatus(), e);
+        }
+        if (exchange.getHeaders() != null)
+            response.getHeaders().putAll(exchange.getHeaders());
+
+        return response;
+    }
+}
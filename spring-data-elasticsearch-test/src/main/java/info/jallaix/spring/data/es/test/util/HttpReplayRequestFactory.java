@@ -0,0 +1,143 @@
+package info.jallaix.spring.data.es.test.util;
+
+import info.jallaix.spring.data.es.test.bean.HttpRecording;
+import info.jallaix.spring.data.es.test.bean.RecordedExchange;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p/>
+ * This request factory serves the responses of HTTP exchanges recorded by a {@link HttpRecorder}, without any server.
+ * <p/>
+ * A request matches a recorded exchange with the same method, path, query and body. Exchanges matching the same request
+ * are served in recording order, the last one being served again once the others are consumed, so that replayed
+ * scenarios can be repeated. An instance is thread-safe.
+ */
+public class HttpReplayRequestFactory implements ClientHttpRequestFactory {
+
+    /**
+     * Hash of the test fixture the exchanges were recorded with
+     */
+    private final String fixtureHash;
+
+    /**
+     * Recorded exchanges not served yet, by request key
+     */
+    private final Map<String, Deque<RecordedExchange>> exchanges = new HashMap<>();
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with a recording
+     *
+     * @param recording The recorded exchanges and fixture hash
+     */
+    public HttpReplayRequestFactory(HttpRecording recording) {
+
+        this.fixtureHash = recording.getFixtureHash();
+        if (recording.getExchanges() != null)
+            for (RecordedExchange exchange : recording.getExchanges())
+                exchanges.computeIfAbsent(getKey(exchange.getMethod(), exchange.getUri(), exchange.getRequestBody()), k -> new ArrayDeque<>())
+                        .add(exchange);
+    }
+
+    /**
+     * Load a recording written by a {@link HttpRecorder} and check it was made with the expected fixture.
+     *
+     * @param file                The recording file
+     * @param expectedFixtureHash The hash of the current test fixture
+     * @return The request factory serving the recording
+     * @throws IllegalStateException If the recording doesn't exist, can't be read or was made with another fixture
+     */
+    public static HttpReplayRequestFactory load(File file, String expectedFixtureHash) {
+
+        if (!file.isFile())
+            throw new IllegalStateException("No HTTP recording found at " + file + ", record it first");
+
+        final HttpRecording recording;
+        try {
+            recording = HttpRecorder.JSON_MAPPER.readValue(file, HttpRecording.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("The HTTP recording " + file + " can't be read", e);
+        }
+
+        if (!expectedFixtureHash.equals(recording.getFixtureHash()))
+            throw new IllegalStateException("The HTTP recording " + file + " was made with another fixture (hash "
+                    + recording.getFixtureHash() + ", current " + expectedFixtureHash + "), record it again");
+
+        return new HttpReplayRequestFactory(recording);
+    }
+
+    /**
+     * Get the hash of the test fixture the exchanges were recorded with.
+     *
+     * @return The fixture hash
+     */
+    public String getFixtureHash() {
+        return fixtureHash;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+
+        return new MockClientHttpRequest(httpMethod, uri) {
+
+            @Override
+            protected ClientHttpResponse executeInternal() throws IOException {
+                return HttpRecorder.toResponse(nextExchange(httpMethod.name(), HttpRecorder.getPathAndQuery(uri), getBodyAsBytes()));
+            }
+        };
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                                Private methods                                                 */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Get the next recorded exchange matching a request.
+     *
+     * @param method The request method
+     * @param uri    The path and query of the request URI
+     * @param body   The request body
+     * @return The recorded exchange
+     * @throws IOException If no recorded exchange matches the request
+     */
+    private RecordedExchange nextExchange(String method, String uri, byte[] body) throws IOException {
+
+        synchronized (exchanges) {
+            final Deque<RecordedExchange> matching = exchanges.get(getKey(method, uri, body));
+            if (matching == null)
+                throw new IOException("No recorded response for " + method + " " + uri);
+
+            return matching.size() > 1 ? matching.poll() : matching.peek();
+        }
+    }
+
+    /**
+     * Get the key matching a request with its recorded exchanges.
+     *
+     * @param method The request method
+     * @param uri    The path and query of the request URI
+     * @param body   The request body
+     * @return The request key
+     */
+    private static String getKey(String method, String uri, byte[] body) {
+        return method + " " + uri + "\n" + (body == null ? "" : new String(body, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,205 @@
+package info.jallaix.spring.data.es.test.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * <p/>
+ * This class compares a raw JSON document against an expected JSON tree, reading the document as a stream of tokens.
+ * <p/>
+ * The JSON document is never bound to a tree or to typed objects : each token is checked against the expected node
+ * at the same path, then dropped. Object fields are compared whatever their order, array elements in order,
+ * and numbers by value whatever their representation.
+ */
+public class JsonTreeComparator {
+
+    /**
+     * Factory of the JSON token parsers, thread-safe once configured
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Describe the first difference between an expected JSON tree and a raw JSON document.
+     *
+     * @param expected The expected JSON tree
+     * @param actual   The raw JSON document
+     * @return {@code null} if the document matches the expected tree, else a description of the first difference with its JSON pointer
+     */
+    public static String describeDifferences(JsonNode expected, String actual) {
+
+        if (actual == null)
+            return expected == null ? null : "expected a JSON document but the body is empty";
+
+        try (JsonParser parser = JSON_FACTORY.createParser(actual)) {
+            return describeDifferences(expected, parser);
+        } catch (IOException e) {
+            return "the body isn't a valid JSON document : " + e.getMessage();
+        }
+    }
+
+    /**
+     * Describe the first difference between an expected JSON tree and the JSON document read by a token parser.
+     *
+     * @param expected The expected JSON tree
+     * @param parser   The token parser, before the first token of the document
+     * @return {@code null} if the document matches the expected tree, else a description of the first difference with its JSON pointer
+     * @throws IOException If the document can't be read
+     */
+    public static String describeDifferences(JsonNode expected, JsonParser parser) throws IOException {
+
+        if (parser.nextToken() == null)
+            return "expected a JSON document but the body is empty";
+
+        return compareValue(expected, parser, "");
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                                Private methods                                                 */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Compare the value at the current token with the expected node.
+     * On return, the parser is positioned on the last token of the value.
+     *
+     * @param expected The expected node
+     * @param parser   The token parser, positioned on the first token of the value
+     * @param path     The JSON pointer of the value
+     * @return {@code null} if the value matches, else a description of the first difference
+     * @throws IOException If the document can't be read
+     */
+    private static String compareValue(JsonNode expected, JsonParser parser, String path) throws IOException {
+
+        final JsonToken token = parser.getCurrentToken();
+        switch (token) {
+
+            case START_OBJECT:
+                if (!expected.isObject())
+                    return mismatch(path, expected, parser, "an object");
+                return compareObject(expected, parser, path);
+
+            case START_ARRAY:
+                if (!expected.isArray())
+                    return mismatch(path, expected, parser, "an array");
+                return compareArray(expected, parser, path);
+
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                if (!expected.isNumber() || expected.decimalValue().compareTo(parser.getDecimalValue()) != 0)
+                    return mismatch(path, expected, parser, parser.getText());
+                return null;
+
+            case VALUE_STRING:
+                if (!expected.isTextual() || !expected.textValue().equals(parser.getText()))
+                    return mismatch(path, expected, parser, "\"" + parser.getText() + "\"");
+                return null;
+
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                if (!expected.isBoolean() || expected.booleanValue() != parser.getBooleanValue())
+                    return mismatch(path, expected, parser, parser.getText());
+                return null;
+
+            case VALUE_NULL:
+                if (!expected.isNull())
+                    return mismatch(path, expected, parser, "null");
+                return null;
+
+            default:
+                return mismatch(path, expected, parser, String.valueOf(token));
+        }
+    }
+
+    /**
+     * Compare the object at the current token with the expected object node, whatever the fields order.
+     *
+     * @param expected The expected object node
+     * @param parser   The token parser, positioned on the start of the object
+     * @param path     The JSON pointer of the object
+     * @return {@code null} if the object matches, else a description of the first difference
+     * @throws IOException If the document can't be read
+     */
+    private static String compareObject(JsonNode expected, JsonParser parser, String path) throws IOException {
+
+        final Set<String> foundFields = new HashSet<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+            final String fieldName = parser.getCurrentName();
+            final String fieldPath = path + "/" + fieldName;
+            final JsonNode expectedField = expected.get(fieldName);
+            parser.nextToken();
+
+            if (expectedField == null)
+                return fieldPath + " : unexpected field";
+
+            final String difference = compareValue(expectedField, parser, fieldPath);
+            if (difference != null)
+                return difference;
+            foundFields.add(fieldName);
+        }
+
+        // Expected fields that weren't found
+        for (Iterator<String> fieldNames = expected.fieldNames(); fieldNames.hasNext(); ) {
+            final String fieldName = fieldNames.next();
+            if (!foundFields.contains(fieldName))
+                return path + "/" + fieldName + " : missing field";
+        }
+
+        return null;
+    }
+
+    /**
+     * Compare the array at the current token with the expected array node, element by element.
+     *
+     * @param expected The expected array node
+     * @param parser   The token parser, positioned on the start of the array
+     * @param path     The JSON pointer of the array
+     * @return {@code null} if the array matches, else a description of the first difference
+     * @throws IOException If the document can't be read
+     */
+    private static String compareArray(JsonNode expected, JsonParser parser, String path) throws IOException {
+
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+
+            if (index >= expected.size())
+                return path + "/" + index + " : unexpected element, expected " + expected.size() + " elements";
+
+            final String difference = compareValue(expected.get(index), parser, path + "/" + index);
+            if (difference != null)
+                return difference;
+            index++;
+        }
+
+        if (index < expected.size())
+            return path + "/" + index + " : missing element, expected " + expected.size() + " elements but was " + index;
+
+        return null;
+    }
+
+    /**
+     * Describe a value mismatch.
+     *
+     * @param path     The JSON pointer of the value
+     * @param expected The expected node
+     * @param parser   The token parser
+     * @param actual   The description of the actual value
+     * @return The mismatch description
+     */
+    private static String mismatch(String path, JsonNode expected, JsonParser parser, String actual) {
+        return (path.isEmpty() ? "/" : path) + " : expected <" + expected + "> but was <" + actual + "> at line "
+                + parser.getCurrentLocation().getLineNr() + ", column " + parser.getCurrentLocation().getColumnNr();
+    }
+}
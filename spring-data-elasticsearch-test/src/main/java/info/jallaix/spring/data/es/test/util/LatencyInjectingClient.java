@@ -0,0 +1,225 @@
+package info.jallaix.spring.data.es.test.util;
+
+import info.jallaix.spring.data.es.test.bean.LatencyProfile;
+import org.elasticsearch.action.*;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.FilterClient;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetResponse;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.search.SearchHit;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p/>
+ * This Elasticsearch client adds latency to the data actions of another client, as defined by a {@link LatencyProfile}.
+ * <p/>
+ * The embedded node is local, so there is no network between the client and the node : the delay is slept by the
+ * calling thread before the action is sent, and the response is handed back once its throttled transfer time has
+ * elapsed, by a scheduler thread so that the node threads completing the action are never put to sleep.
+ * The transfer time is estimated from the size of the document sources held by the response.
+ * Admin actions aren't delayed. No latency is added while no profile is set.
+ */
+public class LatencyInjectingClient extends FilterClient {
+
+    /**
+     * Ratio between the 99th percentile and the median of a log-normal distribution, as a number of standard deviations
+     */
+    private static final double P99_STANDARD_DEVIATIONS = 2.326;
+
+    /**
+     * Scheduler handing the responses back once their transfer time has elapsed
+     */
+    private static final ScheduledExecutorService TRANSFER_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "latency-injection-transfer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Current latency profile, {@code null} if no latency is added
+     */
+    private volatile LatencyProfile profile;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with filtered client
+     *
+     * @param in The client the actions are sent to
+     */
+    public LatencyInjectingClient(Client in) {
+        super(in);
+    }
+
+    /**
+     * Get the current latency profile.
+     *
+     * @return The current latency profile, {@code null} if no latency is added
+     */
+    public LatencyProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Set the latency profile applied to the next actions.
+     *
+     * @param profile The latency profile, {@code null} to stop adding latency
+     */
+    public void setProfile(LatencyProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The raw {@link ActionRequest} bound is the one of {@link Client#execute}, an override can't parameterize it.
+     */
+    @SuppressWarnings("rawtypes")
+    @Override
+    public <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder, Client>> ActionFuture<Response> execute(
+            Action<Request, Response, RequestBuilder, Client> action, Request request) {
+
+        final PlainActionFuture<Response> future = PlainActionFuture.newFuture();
+        execute(action, request, future);
+
+        return future;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Same raw {@link ActionRequest} bound as the other {@code execute} method.
+     */
+    @SuppressWarnings("rawtypes")
+    @Override
+    public <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder, Client>> void execute(
+            Action<Request, Response, RequestBuilder, Client> action, Request request, ActionListener<Response> listener) {
+
+        final LatencyProfile currentProfile = profile;
+        if (currentProfile == null) {
+            super.execute(action, request, listener);
+            return;
+        }
+
+        sleep(sampleDelayMillis(currentProfile));
+        super.execute(action, request, new ActionListener<Response>() {
+
+            @Override
+            public void onResponse(Response response) {
+
+                final double transferMillis = getTransferMillis(currentProfile, response);
+                if (transferMillis <= 0)
+                    listener.onResponse(response);
+                else
+                    TRANSFER_SCHEDULER.schedule(() -> listener.onResponse(response), (long) (transferMillis * 1_000_000), TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                                Private methods                                                 */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Sample the delay added to an action : a log-normal delay, plus a stall for some actions.
+     *
+     * @param profile The latency profile
+     * @return The delay in milliseconds
+     */
+    private static double sampleDelayMillis(LatencyProfile profile) {
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        double delay = 0;
+        if (profile.getMedianMillis() > 0) {
+            final double sigma = profile.getP99Millis() > profile.getMedianMillis()
+                    ? Math.log(profile.getP99Millis() / profile.getMedianMillis()) / P99_STANDARD_DEVIATIONS
+                    : 0;
+            delay = profile.getMedianMillis() * Math.exp(sigma * random.nextGaussian());
+        }
+        if (profile.getStallProbability() > 0 && random.nextDouble() < profile.getStallProbability())
+            delay += profile.getStallMillis();
+
+        return delay;
+    }
+
+    /**
+     * Get the time to transfer a response at the throttled rate, from its estimated size.
+     *
+     * @param profile  The latency profile
+     * @param response The response
+     * @return The transfer time in milliseconds, 0 if the rate isn't limited
+     */
+    private static double getTransferMillis(LatencyProfile profile, ActionResponse response) {
+
+        if (profile.getBytesPerSecond() <= 0)
+            return 0;
+
+        return estimateSize(response) * 1000.0 / profile.getBytesPerSecond();
+    }
+
+    /**
+     * Estimate the size of a response from the document sources it holds, without serializing it.
+     * Responses without document, such as acknowledgements, are estimated to be empty.
+     *
+     * @param response The response
+     * @return The estimated size in bytes
+     */
+    private static long estimateSize(ActionResponse response) {
+
+        long size = 0;
+        if (response instanceof SearchResponse) {
+            for (SearchHit hit : ((SearchResponse) response).getHits().getHits())
+                size += hit.sourceRef() == null ? 0 : hit.sourceRef().length();
+        }
+        else if (response instanceof GetResponse)
+            size = getSourceSize((GetResponse) response);
+        else if (response instanceof MultiGetResponse) {
+            for (MultiGetItemResponse item : (MultiGetResponse) response)
+                size += item.getResponse() == null ? 0 : getSourceSize(item.getResponse());
+        }
+
+        return size;
+    }
+
+    /**
+     * Get the size of the document source of a get response.
+     *
+     * @param response The get response
+     * @return The source size in bytes, 0 if the document isn't found
+     */
+    private static long getSourceSize(GetResponse response) {
+        return response.isSourceEmpty() ? 0 : response.getSourceAsBytesRef().length();
+    }
+
+    /**
+     * Sleep the calling thread, keeping its interrupted status.
+     *
+     * @param millis The sleep duration in milliseconds
+     */
+    private static void sleep(double millis) {
+
+        if (millis <= 0)
+            return;
+
+        try {
+            TimeUnit.NANOSECONDS.sleep((long) (millis * 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package info.jallaix.spring.data.es.test.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * <p/>
+ * Result of loads played under several Elasticsearch latency profiles, holding the load report of each profile.
+ * The first profile is the baseline the other ones are compared with.
+ *
+ * @param <K> The scenario key type
+ */
+public class LatencyProfileReport<K> {
+
+    /**
+     * Load reports by profile name, the baseline first
+     */
+    private final Map<String, LoadReport<K>> reports;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with load reports
+     *
+     * @param reports The load reports by profile name, the baseline first
+     */
+    public LatencyProfileReport(Map<String, LoadReport<K>> reports) {
+        this.reports = Collections.unmodifiableMap(reports);
+    }
+
+    /**
+     * Get the load reports.
+     *
+     * @return The load reports by profile name, the baseline first
+     */
+    public Map<String, LoadReport<K>> getReports() {
+        return reports;
+    }
+
+    /**
+     * Get the number of failed calls over all profiles.
+     *
+     * @return The number of failed calls
+     */
+    public long getErrorCount() {
+        return reports.values().stream().mapToLong(LoadReport::getErrorCount).sum();
+    }
+
+    /**
+     * Get the statistics of all the scenarios of a profile.
+     *
+     * @param profileName The profile name
+     * @return The merged statistics
+     */
+    public LoadStatistics getTotalStatistics(String profileName) {
+
+        final LoadStatistics total = new LoadStatistics();
+        reports.get(profileName).getStatistics().values().forEach(total::add);
+
+        return total;
+    }
+
+    /**
+     * Format the report as a table with one line per profile, comparing the end-to-end p99 with the baseline,
+     * followed by the load report of each profile.
+     *
+     * @param keyName Function returning the displayed name of a scenario key
+     * @return The formatted report
+     */
+    public String format(Function<? super K, String> keyName) {
+
+        final StringBuilder builder = new StringBuilder(String.format("%-24s %10s %8s %10s %10s %12s %10s%n",
+                "profile", "calls", "errors", "p50 (ms)", "p99 (ms)", "p99 delta", "p99 ratio"));
+
+        long baselineP99 = -1;
+        for (String profileName : reports.keySet()) {
+
+            final LoadStatistics total = getTotalStatistics(profileName);
+            final long p99 = total.getPercentileMicros(99);
+            if (baselineP99 < 0)
+                baselineP99 = p99;
+
+            builder.append(String.format("%-24s %10d %8d %10.3f %10.3f %+12.3f %10.2f%n",
+                    profileName,
+                    total.getCount(),
+                    total.getErrorCount(),
+                    total.getPercentileMicros(50) / 1000.0,
+                    p99 / 1000.0,
+                    (p99 - baselineP99) / 1000.0,
+                    baselineP99 == 0 ? 1.0 : (double) p99 / baselineP99));
+        }
+
+        reports.forEach((profileName, report) -> builder
+                .append(System.lineSeparator())
+                .append("Profile ").append(profileName).append(" :").append(System.lineSeparator())
+                .append(report.format(keyName)));
+
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return format(String::valueOf);
+    }
+}
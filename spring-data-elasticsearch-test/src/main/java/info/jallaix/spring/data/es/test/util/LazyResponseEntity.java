@@ -0,0 +1,79 @@
+package info.jallaix.spring.data.es.test.util;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Function;
+
+/**
+ * <p/>
+ * This response entity keeps the raw body of a response and only decodes it the first time the body is asked for.
+ * Responses already asserted on their raw body don't pay the typed decoding when the caller ignores the body.
+ *
+ * @param <B> Type of the decoded body
+ */
+public class LazyResponseEntity<B> extends ResponseEntity<B> {
+
+    /**
+     * Raw response
+     */
+    private final ResponseEntity<String> rawResponse;
+
+    /**
+     * Decoder of the raw body
+     */
+    private final Function<String, B> decoder;
+
+    /**
+     * Decoded body, {@code null} until decoded
+     */
+    private volatile B body;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with raw response and body decoder
+     *
+     * @param rawResponse The raw response, whose status and headers are kept
+     * @param decoder     The decoder of the raw body
+     */
+    public LazyResponseEntity(ResponseEntity<String> rawResponse, Function<String, B> decoder) {
+
+        super(rawResponse.getHeaders(), rawResponse.getStatusCode());
+        this.rawResponse = rawResponse;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Get the raw response.
+     *
+     * @return The raw response
+     */
+    public ResponseEntity<String> getRawResponse() {
+        return rawResponse;
+    }
+
+    /**
+     * Get the body, decoded from the raw body on the first call.
+     *
+     * @return The decoded body
+     */
+    @Override
+    public B getBody() {
+
+        B decoded = body;
+        if (decoded == null && rawResponse.hasBody()) {
+            decoded = decoder.apply(rawResponse.getBody());
+            body = decoded;
+        }
+
+        return decoded;
+    }
+
+    @Override
+    public boolean hasBody() {
+        return rawResponse.hasBody();
+    }
+}
@@ -0,0 +1,102 @@
+package info.jallaix.spring.data.es.test.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * <p/>
+ * Result of a load, holding the latency statistics of each scenario.
+ *
+ * @param <K> The scenario key type
+ */
+public class LoadReport<K> {
+
+    /**
+     * Statistics by scenario
+     */
+    private final Map<K, LoadStatistics> statistics;
+
+    /**
+     * Load duration in nanoseconds
+     */
+    private final long elapsedNanos;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with statistics and load duration
+     *
+     * @param statistics   The statistics by scenario
+     * @param elapsedNanos The load duration in nanoseconds
+     */
+    public LoadReport(Map<K, LoadStatistics> statistics, long elapsedNanos) {
+
+        this.statistics = Collections.unmodifiableMap(statistics);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Get the statistics by scenario.
+     *
+     * @return The statistics by scenario
+     */
+    public Map<K, LoadStatistics> getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Get the load duration.
+     *
+     * @return The load duration in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Get the number of failed calls over all scenarios.
+     *
+     * @return The number of failed calls
+     */
+    public long getErrorCount() {
+        return statistics.values().stream().mapToLong(LoadStatistics::getErrorCount).sum();
+    }
+
+    /**
+     * Format the report as a table with one line per scenario.
+     *
+     * @param keyName Function returning the displayed name of a scenario key
+     * @return The formatted report
+     */
+    public String format(Function<? super K, String> keyName) {
+
+        final StringBuilder builder = new StringBuilder(String.format("%-24s %10s %8s %10s %10s %10s %10s %10s%n",
+                "scenario", "calls", "errors", "calls/s", "p50 (ms)", "p99 (ms)", "p999 (ms)", "max (ms)"));
+
+        statistics.forEach((key, stats) -> builder.append(String.format("%-24s %10d %8d %10.1f %10.3f %10.3f %10.3f %10.3f%n",
+                keyName.apply(key),
+                stats.getCount(),
+                stats.getErrorCount(),
+                stats.getThroughput(elapsedNanos),
+                stats.getPercentileMicros(50) / 1000.0,
+                stats.getPercentileMicros(99) / 1000.0,
+                stats.getPercentileMicros(99.9) / 1000.0,
+                stats.getHistogram().getMaxValue() / 1000.0)));
+
+        statistics.forEach((key, stats) -> {
+            if (stats.getFirstError() != null)
+                builder.append(String.format("First error on %s : %s%n", keyName.apply(key), stats.getFirstError()));
+        });
+
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return format(String::valueOf);
+    }
+}
@@ -0,0 +1,120 @@
+package info.jallaix.spring.data.es.test.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p/>
+ * This class replays load scenarios from concurrent workers (closed loop).
+ * Each worker calls the scenarios in turn, sending a new call as soon as the previous one returns,
+ * until the load duration is elapsed or the maximum number of calls is reached.
+ * <p/>
+ * A scenario is a {@link Runnable} that throws an exception or an {@link AssertionError} when the call fails.
+ *
+ * @param <K> The scenario key type
+ */
+public class LoadRunner<K> {
+
+    /**
+     * Number of concurrent workers
+     */
+    private final int workers;
+
+    /**
+     * Load duration in milliseconds
+     */
+    private final long durationMillis;
+
+    /**
+     * Maximum number of calls over all workers
+     */
+    private final long maxCalls;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with load settings
+     *
+     * @param workers        The number of concurrent workers
+     * @param durationMillis The load duration in milliseconds
+     * @param maxCalls       The maximum number of calls over all workers
+     */
+    public LoadRunner(int workers, long durationMillis, long maxCalls) {
+
+        if (workers <= 0)
+            throw new IllegalArgumentException("The number of workers must be positive");
+
+        this.workers = workers;
+        this.durationMillis = durationMillis;
+        this.maxCalls = maxCalls;
+    }
+
+    /**
+     * Replay the scenarios from the concurrent workers.
+     *
+     * @param scenarios The scenarios to replay, by key
+     * @return The load report
+     */
+    public LoadReport<K> run(Map<K, Runnable> scenarios) {
+
+        if (scenarios.isEmpty())
+            throw new IllegalArgumentException("No scenario to replay");
+
+        final List<K> keys = new ArrayList<>(scenarios.keySet());
+        final AtomicLong callCount = new AtomicLong();
+        final ExecutorService executor = Executors.newFixedThreadPool(workers);
+
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+
+        try {
+            // Each worker starts with a different scenario and records its own statistics
+            final List<Future<Map<K, LoadStatistics>>> results = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                final int offset = i;
+                results.add(executor.submit(() -> {
+
+                    final Map<K, LoadStatistics> statistics = new HashMap<>();
+                    for (int call = offset; System.nanoTime() < deadline && callCount.getAndIncrement() < maxCalls; call++) {
+
+                        final K key = keys.get(call % keys.size());
+                        final LoadStatistics keyStatistics = statistics.computeIfAbsent(key, k -> new LoadStatistics());
+
+                        final long callStart = System.nanoTime();
+                        try {
+                            scenarios.get(key).run();
+                            keyStatistics.recordSuccess(System.nanoTime() - callStart);
+                        } catch (Exception | AssertionError e) {
+                            keyStatistics.recordError(System.nanoTime() - callStart, e);
+                        }
+                    }
+                    return statistics;
+                }));
+            }
+
+            // Merge worker statistics, in scenario order
+            final Map<K, LoadStatistics> merged = new LinkedHashMap<>();
+            keys.forEach(key -> merged.put(key, new LoadStatistics()));
+            for (Future<Map<K, LoadStatistics>> result : results)
+                result.get().forEach((key, statistics) -> merged.get(key).add(statistics));
+
+            return new LoadReport<>(merged, System.nanoTime() - start);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
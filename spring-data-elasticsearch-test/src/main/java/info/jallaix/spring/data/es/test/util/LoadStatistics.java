@@ -0,0 +1,139 @@
+package info.jallaix.spring.data.es.test.util;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p/>
+ * Latency statistics of a load scenario, recorded in microseconds.
+ * An instance isn't thread-safe : each worker records its own statistics, merged at the end of the load.
+ */
+public class LoadStatistics {
+
+    /**
+     * Latency histogram, in microseconds
+     */
+    private final Histogram histogram = new Histogram(3);
+
+    /**
+     * Number of failed calls
+     */
+    private long errorCount;
+
+    /**
+     * First error that occurred
+     */
+    private String firstError;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Record the latency of a successful call.
+     *
+     * @param latencyNanos The call latency in nanoseconds
+     */
+    public void recordSuccess(long latencyNanos) {
+        histogram.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+    }
+
+    /**
+     * Record the latency of a failed call.
+     *
+     * @param latencyNanos The call latency in nanoseconds
+     * @param error        The error thrown by the call
+     */
+    public void recordError(long latencyNanos, Throwable error) {
+
+        recordSuccess(latencyNanos);
+        if (errorCount++ == 0)
+            firstError = error.toString();
+    }
+
+    /**
+     * Add other statistics to these ones.
+     *
+     * @param other The statistics to add
+     */
+    public void add(LoadStatistics other) {
+
+        histogram.add(other.histogram);
+        if (errorCount == 0)
+            firstError = other.firstError;
+        errorCount += other.errorCount;
+    }
+
+    /**
+     * Get the latency histogram, in microseconds.
+     *
+     * @return The latency histogram
+     */
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * Get the number of calls, successful or not.
+     *
+     * @return The number of calls
+     */
+    public long getCount() {
+        return histogram.getTotalCount();
+    }
+
+    /**
+     * Get the number of failed calls.
+     *
+     * @return The number of failed calls
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Get the first error that occurred.
+     *
+     * @return The first error, or {@code null} if all calls succeeded
+     */
+    public String getFirstError() {
+        return firstError;
+    }
+
+    /**
+     * Get a latency percentile.
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The latency in microseconds
+     */
+    public long getPercentileMicros(double percentile) {
+        return histogram.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Format the latency percentile distribution, in milliseconds.
+     *
+     * @return The formatted distribution
+     */
+    public String formatDistribution() {
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        histogram.outputPercentileDistribution(new PrintStream(output), 5, 1000.0);
+
+        return output.toString();
+    }
+
+    /**
+     * Get the throughput over an elapsed time.
+     *
+     * @param elapsedNanos The elapsed time in nanoseconds
+     * @return The number of calls per second
+     */
+    public double getThroughput(long elapsedNanos) {
+        return elapsedNanos == 0 ? 0 : getCount() * 1e9 / elapsedNanos;
+    }
+}
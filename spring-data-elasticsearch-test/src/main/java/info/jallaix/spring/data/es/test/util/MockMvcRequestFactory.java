@@ -0,0 +1,96 @@
+package info.jallaix.spring.data.es.test.util;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * <p/>
+ * This request factory sends the REST template requests in-process to a {@link MockMvc} instance,
+ * without servlet container, socket or HTTP parsing.
+ * <p/>
+ * Unlike the {@code MockMvcClientHttpRequestFactory} of Spring Test, request URIs are passed as is, without being
+ * expanded and encoded again, and the exceptions thrown by the application make the request fail instead of being
+ * converted into {@code 500 Internal Server Error} responses.
+ */
+public class MockMvcRequestFactory implements ClientHttpRequestFactory {
+
+    /**
+     * MockMvc instance handling the requests
+     */
+    private final MockMvc mockMvc;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with MockMvc instance
+     *
+     * @param mockMvc The MockMvc instance handling the requests
+     */
+    public MockMvcRequestFactory(MockMvc mockMvc) {
+        this.mockMvc = mockMvc;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+
+        return new MockClientHttpRequest(httpMethod, uri) {
+
+            @Override
+            protected ClientHttpResponse executeInternal() throws IOException {
+
+                final MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.request(httpMethod, uri)
+                        .content(getBodyAsBytes())
+                        .headers(getHeaders());
+
+                try {
+                    return toResponse(mockMvc.perform(requestBuilder).andReturn().getResponse());
+                } catch (IOException | RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IOException("MockMvc request " + httpMethod + " " + uri + " failed", e);
+                }
+            }
+        };
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                                Private methods                                                 */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Convert a servlet response into a client response.
+     *
+     * @param servletResponse The servlet response
+     * @return The client response
+     */
+    private static ClientHttpResponse toResponse(MockHttpServletResponse servletResponse) {
+
+        final MockClientHttpResponse response = new MockClientHttpResponse(
+                servletResponse.getContentAsByteArray(),
+                HttpStatus.valueOf(servletResponse.getStatus()));
+
+        for (String name : servletResponse.getHeaderNames())
+            for (String value : servletResponse.getHeaders(name))
+                response.getHeaders().add(name, value);
+        if (servletResponse.getContentType() != null && response.getHeaders().getContentType() == null)
+            response.getHeaders().set("Content-Type", servletResponse.getContentType());
+
+        return response;
+    }
+}
@@ -0,0 +1,163 @@
+package info.jallaix.spring.data.es.test.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p/>
+ * This class sends scenario calls at a target rate (open loop), whether or not earlier calls have returned.
+ * <p/>
+ * Each call has an intended send time on a fixed schedule. Its latency is measured from this intended time,
+ * so that the time spent waiting behind slow calls is part of the recorded latency (coordinated omission correction).
+ * Scenarios are picked randomly according to a weighted mix.
+ *
+ * @param <K> The scenario key type
+ */
+public class OpenLoopLoadGenerator<K> {
+
+    /**
+     * Target number of calls per second
+     */
+    private final double callsPerSecond;
+
+    /**
+     * Load duration in milliseconds
+     */
+    private final long durationMillis;
+
+    /**
+     * Maximum number of concurrent calls
+     */
+    private final int maxConcurrency;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with load settings
+     *
+     * @param callsPerSecond The target number of calls per second
+     * @param durationMillis The load duration in milliseconds
+     * @param maxConcurrency The maximum number of concurrent calls, further calls are queued
+     */
+    public OpenLoopLoadGenerator(double callsPerSecond, long durationMillis, int maxConcurrency) {
+
+        if (callsPerSecond <= 0)
+            throw new IllegalArgumentException("The target rate must be positive");
+        if (maxConcurrency <= 0)
+            throw new IllegalArgumentException("The maximum concurrency must be positive");
+
+        this.callsPerSecond = callsPerSecond;
+        this.durationMillis = durationMillis;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Send scenario calls at the target rate, picking scenarios according to a weighted mix.
+     *
+     * @param scenarios The scenarios, by key
+     * @param mix       The weight of each scenario in the mix, by key
+     * @return The load report, with latencies measured from the intended send times
+     */
+    public LoadReport<K> run(Map<K, Runnable> scenarios, Map<K, Double> mix) {
+
+        // Cumulative weights of the mixed scenarios
+        final List<K> keys = new ArrayList<>();
+        final List<Double> cumulativeWeights = new ArrayList<>();
+        double totalWeight = 0;
+        for (Map.Entry<K, Double> entry : mix.entrySet()) {
+            if (!scenarios.containsKey(entry.getKey()))
+                throw new IllegalArgumentException("No scenario for mix entry " + entry.getKey());
+            if (entry.getValue() <= 0)
+                continue;
+
+            totalWeight += entry.getValue();
+            keys.add(entry.getKey());
+            cumulativeWeights.add(totalWeight);
+        }
+        if (keys.isEmpty())
+            throw new IllegalArgumentException("No scenario to send");
+
+        final Map<K, LoadStatistics> statistics = new LinkedHashMap<>();
+        keys.forEach(key -> statistics.put(key, new LoadStatistics()));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(maxConcurrency);
+        final Random random = new Random();
+        final long intervalNanos = (long) (1e9 / callsPerSecond);
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+
+        try {
+            // Schedule calls at fixed intended times, without waiting for previous calls
+            for (long intended = start; intended < deadline; intended += intervalNanos) {
+
+                final long waitNanos = intended - System.nanoTime();
+                if (waitNanos > 0)
+                    LockSupport.parkNanos(waitNanos);
+
+                final K key = pick(keys, cumulativeWeights, random.nextDouble() * totalWeight);
+                final Runnable scenario = scenarios.get(key);
+                final LoadStatistics keyStatistics = statistics.get(key);
+                final long intendedStart = intended;
+
+                executor.execute(() -> {
+                    try {
+                        scenario.run();
+                        final long latency = System.nanoTime() - intendedStart;
+                        synchronized (keyStatistics) {
+                            keyStatistics.recordSuccess(latency);
+                        }
+                    } catch (Exception | AssertionError e) {
+                        final long latency = System.nanoTime() - intendedStart;
+                        synchronized (keyStatistics) {
+                            keyStatistics.recordError(latency, e);
+                        }
+                    }
+                });
+            }
+
+            // Wait for the pending calls
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new LoadReport<>(statistics, System.nanoTime() - start);
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                                Private methods                                                 */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Pick a scenario key from a weighted draw.
+     *
+     * @param keys              The scenario keys
+     * @param cumulativeWeights The cumulative weights of the scenario keys
+     * @param draw              A random value between 0 and the total weight
+     * @return The picked scenario key
+     */
+    private K pick(List<K> keys, List<Double> cumulativeWeights, double draw) {
+
+        for (int i = 0; i < keys.size() - 1; i++)
+            if (draw < cumulativeWeights.get(i))
+                return keys.get(i);
+
+        return keys.get(keys.size() - 1);
+    }
+}
@@ -0,0 +1,72 @@
+package info.jallaix.spring.data.es.test.util;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * <p/>
+ * Result of a {@link PageCrawler page crawl}, holding the fetched pages and the fetch latency of each page.
+ *
+ * @param <E> The element type
+ */
+public class PageCrawl<E> {
+
+    /**
+     * Fetched pages in page order, {@code null} for a page that failed
+     */
+    private final List<List<E>> pages;
+
+    /**
+     * Fetch latency report, by page number
+     */
+    private final LoadReport<Integer> latencyReport;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with pages and latency report
+     *
+     * @param pages         The fetched pages in page order, {@code null} for a page that failed
+     * @param latencyReport The fetch latency report, by page number
+     */
+    public PageCrawl(List<List<E>> pages, LoadReport<Integer> latencyReport) {
+
+        this.pages = Collections.unmodifiableList(pages);
+        this.latencyReport = latencyReport;
+    }
+
+    /**
+     * Get the fetched pages.
+     *
+     * @return The fetched pages in page order, {@code null} for a page that failed
+     */
+    public List<List<E>> getPages() {
+        return pages;
+    }
+
+    /**
+     * Get the elements of all fetched pages, in page order.
+     *
+     * @return The elements of all fetched pages
+     */
+    public List<E> getElements() {
+        return pages.stream()
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the fetch latency report.
+     *
+     * @return The fetch latency report, by page number
+     */
+    public LoadReport<Integer> getLatencyReport() {
+        return latencyReport;
+    }
+}
@@ -0,0 +1,98 @@
+package info.jallaix.spring.data.es.test.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * <p/>
+ * This class fetches all the pages of a paged result concurrently, with a bounded number of threads.
+ * <p/>
+ * The latency of each page fetch is recorded by page number, so that the cost of deep pages can be compared
+ * with the cost of the first ones.
+ */
+public class PageCrawler {
+
+    /**
+     * Maximum number of pages fetched at the same time
+     */
+    private final int parallelism;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with parallelism
+     *
+     * @param parallelism The maximum number of pages fetched at the same time
+     */
+    public PageCrawler(int parallelism) {
+
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("The parallelism must be positive");
+
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Fetch all pages concurrently.
+     *
+     * @param pageCount   The number of pages to fetch
+     * @param pageFetcher Function fetching the elements of a page from its number, starting from 0
+     * @param <E>         The element type
+     * @return The crawl result, with the pages in page order
+     */
+    public <E> PageCrawl<E> crawl(int pageCount, IntFunction<? extends List<E>> pageFetcher) {
+
+        final Map<Integer, LoadStatistics> statistics = new LinkedHashMap<>();
+        final List<List<E>> pages = new ArrayList<>(pageCount);
+        if (pageCount <= 0)
+            return new PageCrawl<>(pages, new LoadReport<>(statistics, 0));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, pageCount));
+        final long start = System.nanoTime();
+
+        try {
+            // Fetch each page with its own statistics, a failed page is recorded as an error
+            final List<Future<List<E>>> results = new ArrayList<>(pageCount);
+            for (int page = 0; page < pageCount; page++) {
+                final int pageNo = page;
+                final LoadStatistics pageStatistics = new LoadStatistics();
+                statistics.put(pageNo, pageStatistics);
+
+                results.add(executor.submit(() -> {
+                    final long fetchStart = System.nanoTime();
+                    try {
+                        final List<E> elements = pageFetcher.apply(pageNo);
+                        pageStatistics.recordSuccess(System.nanoTime() - fetchStart);
+                        return elements;
+                    } catch (Exception | AssertionError e) {
+                        pageStatistics.recordError(System.nanoTime() - fetchStart, e);
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<List<E>> result : results)
+                pages.add(result.get());
+
+            return new PageCrawl<>(pages, new LoadReport<>(statistics, System.nanoTime() - start));
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
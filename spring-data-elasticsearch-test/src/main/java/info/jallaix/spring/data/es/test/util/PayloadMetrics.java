@@ -0,0 +1,110 @@
+package info.jallaix.spring.data.es.test.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p/>
+ * This class aggregates the payload sizes and the client allocations of REST requests, by key.
+ * The aggregated metrics are written as a JSON report. An instance is thread-safe.
+ */
+public class PayloadMetrics {
+
+    /**
+     * Names of the aggregated metrics, in recording order
+     */
+    private static final String[] METRIC_NAMES = {"requestBodyBytes", "responseHeaderBytes", "responseBodyBytes", "allocatedBytes"};
+
+    /**
+     * JSON mapper for the reports
+     */
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * Aggregated metrics by key : number of requests, then the total and the maximum of each metric
+     */
+    private final Map<String, long[]> metrics = new LinkedHashMap<>();
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Record the metrics of a request.
+     *
+     * @param key                 The aggregation key
+     * @param requestBodyBytes    The number of request body bytes
+     * @param responseHeaderBytes The number of response header bytes
+     * @param responseBodyBytes   The number of response body bytes
+     * @param allocatedBytes      The number of bytes allocated by the client to send the request and process the response
+     */
+    public synchronized void record(String key, long requestBodyBytes, long responseHeaderBytes, long responseBodyBytes, long allocatedBytes) {
+
+        final long[] keyMetrics = metrics.computeIfAbsent(key, k -> new long[1 + 2 * METRIC_NAMES.length]);
+        final long[] values = {requestBodyBytes, responseHeaderBytes, responseBodyBytes, allocatedBytes};
+
+        keyMetrics[0]++;
+        for (int i = 0; i < values.length; i++) {
+            keyMetrics[1 + 2 * i] += values[i];
+            keyMetrics[2 + 2 * i] = Math.max(keyMetrics[2 + 2 * i], values[i]);
+        }
+    }
+
+    /**
+     * Indicate if no request was recorded.
+     *
+     * @return {@code true} if no request was recorded
+     */
+    public synchronized boolean isEmpty() {
+        return metrics.isEmpty();
+    }
+
+    /**
+     * Build the JSON report of the aggregated metrics.
+     * For each key, the report holds the number of requests, then the total, mean and maximum of each metric.
+     *
+     * @param name The report name
+     * @return The JSON report
+     */
+    public synchronized ObjectNode toJson(String name) {
+
+        final ObjectNode report = JSON_MAPPER.createObjectNode()
+                .put("name", name)
+                .put("allocationCountersSupported", AllocationCounter.isSupported());
+
+        final ObjectNode keysNode = report.putObject("metrics");
+        metrics.forEach((key, keyMetrics) -> {
+
+            final ObjectNode keyNode = keysNode.putObject(key).put("requests", keyMetrics[0]);
+            for (int i = 0; i < METRIC_NAMES.length; i++)
+                keyNode.putObject(METRIC_NAMES[i])
+                        .put("total", keyMetrics[1 + 2 * i])
+                        .put("mean", keyMetrics[0] == 0 ? 0 : keyMetrics[1 + 2 * i] / keyMetrics[0])
+                        .put("max", keyMetrics[2 + 2 * i]);
+        });
+
+        return report;
+    }
+
+    /**
+     * Write the JSON report of the aggregated metrics to a file, creating its directory if needed.
+     *
+     * @param name The report name
+     * @param file The report file
+     * @throws IOException If the report can't be written
+     */
+    public void writeJson(String name, File file) throws IOException {
+
+        if (file.getParentFile() != null && !file.getParentFile().isDirectory() && !file.getParentFile().mkdirs())
+            throw new IOException("Could not create directory " + file.getParentFile());
+
+        JSON_MAPPER.writeValue(file, toJson(name));
+    }
+}
@@ -0,0 +1,183 @@
+package info.jallaix.spring.data.es.test.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p/>
+ * This REST template interceptor counts the bytes of the exchanged payloads : request body, response headers and response body.
+ * <p/>
+ * Counts are kept for the calling thread, from the last {@link #reset()} call.
+ * The response body is counted while it is read, so the counts are complete once the response is deserialized.
+ */
+public class PayloadSizeInterceptor implements ClientHttpRequestInterceptor {
+
+    /**
+     * Payload byte counts of the calling thread : request body, response headers and response body
+     */
+    private final ThreadLocal<long[]> counts = ThreadLocal.withInitial(() -> new long[3]);
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+
+        final long[] threadCounts = counts.get();
+        threadCounts[0] += body.length;
+
+        final ClientHttpResponse response = execution.execute(request, body);
+        threadCounts[1] += getHeadersSize(response.getHeaders());
+
+        return new CountingClientHttpResponse(response, threadCounts);
+    }
+
+    /**
+     * Reset the payload byte counts of the calling thread.
+     */
+    public void reset() {
+
+        final long[] threadCounts = counts.get();
+        threadCounts[0] = 0;
+        threadCounts[1] = 0;
+        threadCounts[2] = 0;
+    }
+
+    /**
+     * Get the number of request body bytes sent by the calling thread.
+     *
+     * @return The number of request body bytes
+     */
+    public long getRequestBodyBytes() {
+        return counts.get()[0];
+    }
+
+    /**
+     * Get the number of response header bytes received by the calling thread, names and values as sent on the wire.
+     *
+     * @return The number of response header bytes
+     */
+    public long getResponseHeaderBytes() {
+        return counts.get()[1];
+    }
+
+    /**
+     * Get the number of response body bytes read by the calling thread, after content decoding.
+     *
+     * @return The number of response body bytes
+     */
+    public long getResponseBodyBytes() {
+        return counts.get()[2];
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                                Private methods                                                 */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Get the size of HTTP headers, each one written as {@code name: value\r\n}.
+     *
+     * @param headers The HTTP headers
+     * @return The size of the headers in bytes
+     */
+    private static long getHeadersSize(HttpHeaders headers) {
+
+        long size = 0;
+        for (Map.Entry<String, List<String>> header : headers.entrySet())
+            for (String value : header.getValue())
+                size += header.getKey().length() + value.length() + 4;
+
+        return size;
+    }
+
+    /**
+     * Response whose body counts the bytes read.
+     */
+    private static class CountingClientHttpResponse implements ClientHttpResponse {
+
+        /**
+         * Intercepted response
+         */
+        private final ClientHttpResponse response;
+
+        /**
+         * Payload byte counts to update
+         */
+        private final long[] counts;
+
+        /**
+         * Constructor with intercepted response and counts to update
+         *
+         * @param response The intercepted response
+         * @param counts   The payload byte counts to update
+         */
+        CountingClientHttpResponse(ClientHttpResponse response, long[] counts) {
+
+            this.response = response;
+            this.counts = counts;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+
+            return new FilterInputStream(response.getBody()) {
+
+                @Override
+                public int read() throws IOException {
+
+                    final int read = super.read();
+                    if (read >= 0)
+                        counts[2]++;
+                    return read;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+
+                    final int read = super.read(buffer, offset, length);
+                    if (read > 0)
+                        counts[2] += read;
+                    return read;
+                }
+            };
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+}
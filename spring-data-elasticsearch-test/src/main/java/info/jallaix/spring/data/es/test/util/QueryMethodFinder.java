@@ -0,0 +1,88 @@
+package info.jallaix.spring.data.es.test.util;
+
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * <p/>
+ * This class finds the read query methods declared on a repository interface, such as {@code findByName} or {@code countByCode}.
+ * <p/>
+ * Query methods are the methods declared by the repository interface or its custom super-interfaces,
+ * outside of {@link ElasticsearchRepository} and its super-interfaces, with a read prefix of the Spring Data method naming.
+ * Delete queries are ignored, as calling them modifies the index.
+ */
+public class QueryMethodFinder {
+
+    /**
+     * Pattern of the read query method names
+     */
+    private static final Pattern READ_QUERY_PATTERN = Pattern.compile("^(find|read|get|query|stream|count|exists)(\\p{Lu}.*?)??By.*");
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Find the read query methods declared on a repository interface.
+     *
+     * @param repositoryInterface The repository interface
+     * @return The read query methods, sorted by description
+     */
+    public static List<Method> findQueryMethods(Class<?> repositoryInterface) {
+
+        final Set<Class<?>> customInterfaces = new LinkedHashSet<>();
+        collectCustomInterfaces(repositoryInterface, customInterfaces);
+
+        return customInterfaces.stream()
+                .flatMap(customInterface -> Arrays.stream(customInterface.getDeclaredMethods()))
+                .filter(method -> !method.isDefault() && !method.isSynthetic())
+                .filter(method -> READ_QUERY_PATTERN.matcher(method.getName()).matches())
+                .sorted(Comparator.comparing(QueryMethodFinder::describe))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Describe a query method with its name and parameter types, such as {@code findByName(String)}.
+     *
+     * @param method The query method
+     * @return The query method description
+     */
+    public static String describe(Method method) {
+
+        return method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(", ", "(", ")"));
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                                Private methods                                                 */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Collect a repository interface and its super-interfaces, except the Spring Data ones.
+     *
+     * @param repositoryInterface The repository interface
+     * @param customInterfaces    The set receiving the custom interfaces
+     */
+    private static void collectCustomInterfaces(Class<?> repositoryInterface, Set<Class<?>> customInterfaces) {
+
+        if (!repositoryInterface.isInterface()
+                || !Repository.class.isAssignableFrom(repositoryInterface)
+                || repositoryInterface.isAssignableFrom(ElasticsearchRepository.class))
+            return;
+
+        if (customInterfaces.add(repositoryInterface))
+            Arrays.stream(repositoryInterface.getInterfaces()).forEach(superInterface -> collectCustomInterfaces(superInterface, customInterfaces));
+    }
+}
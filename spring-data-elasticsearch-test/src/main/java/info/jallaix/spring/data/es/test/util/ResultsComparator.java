@@ -0,0 +1,168 @@
+package info.jallaix.spring.data.es.test.util;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.Assert.fail;
+
+/**
+ * <p/>
+ * Utility class used to compare expected results with actual results without copying them.
+ * <ul>
+ * <li>Ordered results are walked in lockstep and compared element by element, with no extra memory.</li>
+ * <li>Unordered results are compared by indexing the expected elements by identifier.</li>
+ * </ul>
+ * The comparison stops at the first mismatch and reports its index, identifier and field differences.
+ */
+public class ResultsComparator {
+
+    /**
+     * Assert that two iterables hold equal elements in the same order.
+     *
+     * @param <E>         The element type
+     * @param expected    The expected elements
+     * @param actual      The actual elements
+     * @param idExtractor Function returning the identifier of an element, may be {@code null}
+     */
+    public static <E> void assertSameSequence(Iterable<? extends E> expected, Iterable<? extends E> actual, Function<? super E, ?> idExtractor) {
+        assertSameSequence(expected, actual, idExtractor, ResultsComparator::describeDifferences);
+    }
+
+    /**
+     * Assert that two iterables hold matching elements in the same order.
+     *
+     * @param <E>         The element type
+     * @param expected    The expected elements
+     * @param actual      The actual elements
+     * @param idExtractor Function returning the identifier of an element, may be {@code null}
+     * @param differ      Function returning {@code null} if two elements match, else a description of their differences
+     */
+    public static <E> void assertSameSequence(Iterable<? extends E> expected, Iterable<? extends E> actual, Function<? super E, ?> idExtractor, BiFunction<? super E, ? super E, String> differ) {
+
+        final Iterator<? extends E> expectedIterator = expected.iterator();
+        final Iterator<? extends E> actualIterator = actual.iterator();
+
+        // Walk both iterators in lockstep
+        int index = 0;
+        while (expectedIterator.hasNext() && actualIterator.hasNext()) {
+
+            final E expectedElement = expectedIterator.next();
+            final String differences = differ.apply(expectedElement, actualIterator.next());
+            if (differences != null)
+                fail("Mismatch at index " + index + " (id " + extractId(expectedElement, idExtractor) + ") : " + differences);
+
+            index++;
+        }
+
+        // One of the iterators is exhausted before the other
+        if (expectedIterator.hasNext())
+            fail("Missing element at index " + index + " (id " + extractId(expectedIterator.next(), idExtractor) + ")");
+        if (actualIterator.hasNext())
+            fail("Unexpected element at index " + index + " (id " + extractId(actualIterator.next(), idExtractor) + ")");
+    }
+
+    /**
+     * Assert that two iterables hold equal elements, whatever their order.
+     *
+     * @param <E>         The element type
+     * @param expected    The expected elements
+     * @param actual      The actual elements
+     * @param idExtractor Function returning the identifier of an element
+     */
+    public static <E> void assertSameElements(Iterable<? extends E> expected, Iterable<? extends E> actual, Function<? super E, ?> idExtractor) {
+        assertSameElements(expected, actual, idExtractor, ResultsComparator::describeDifferences);
+    }
+
+    /**
+     * Assert that two iterables hold matching elements, whatever their order.
+     * Elements are matched by identifier, so that duplicated actual elements are reported.
+     *
+     * @param <E>         The element type
+     * @param expected    The expected elements
+     * @param actual      The actual elements
+     * @param idExtractor Function returning the identifier of an element
+     * @param differ      Function returning {@code null} if two elements match, else a description of their differences
+     */
+    public static <E> void assertSameElements(Iterable<? extends E> expected, Iterable<? extends E> actual, Function<? super E, ?> idExtractor, BiFunction<? super E, ? super E, String> differ) {
+
+        // Index expected elements by identifier
+        final Map<Object, E> expectedById = new HashMap<>();
+        for (E expectedElement : expected) {
+            if (expectedById.put(idExtractor.apply(expectedElement), expectedElement) != null)
+                fail("Duplicate expected element (id " + idExtractor.apply(expectedElement) + ")");
+        }
+
+        // Each actual element must match a remaining expected element
+        int index = 0;
+        for (E actualElement : actual) {
+
+            final Object id = idExtractor.apply(actualElement);
+            final E expectedElement = expectedById.remove(id);
+            if (expectedElement == null)
+                fail("Unexpected or duplicate element at index " + index + " (id " + id + ")");
+
+            final String differences = differ.apply(expectedElement, actualElement);
+            if (differences != null)
+                fail("Mismatch at index " + index + " (id " + id + ") : " + differences);
+
+            index++;
+        }
+
+        if (!expectedById.isEmpty())
+            fail("Missing " + expectedById.size() + " element(s) (first id " + expectedById.keySet().iterator().next() + ")");
+    }
+
+    /**
+     * Describe the differences between two objects.
+     *
+     * @param expected The expected object
+     * @param actual   The actual object
+     * @return {@code null} if both objects are equal, else a description of their differences
+     */
+    public static String describeDifferences(Object expected, Object actual) {
+        return Objects.equals(expected, actual) ? null : describeFieldDifferences(expected, actual);
+    }
+
+    /**
+     * Describe the field differences between two objects known to be different.
+     *
+     * @param expected The expected object
+     * @param actual   The actual object
+     * @return A description of the field differences
+     */
+    public static String describeFieldDifferences(Object expected, Object actual) {
+
+        if (expected == null || actual == null)
+            return "expected <" + expected + "> but was <" + actual + ">";
+        if (!expected.getClass().equals(actual.getClass()))
+            return "expected type <" + expected.getClass().getName() + "> but was <" + actual.getClass().getName() + ">";
+
+        // Compare the values of each persistent field
+        @SuppressWarnings("unchecked")
+        final DocumentComparator<Object> comparator = (DocumentComparator<Object>) DocumentComparator.forClass(expected.getClass());
+        final String differences = comparator.describeDifferences(expected, actual);
+
+        return differences == null ? "equals() returned false while all fields are equal" : differences;
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                                Private methods                                                 */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Extract the identifier of an element for reporting.
+     *
+     * @param <E>         The element type
+     * @param element     The element
+     * @param idExtractor Function returning the identifier of an element, may be {@code null}
+     * @return The identifier found, or {@code "n/a"} if no extractor is provided
+     */
+    private static <E> Object extractId(E element, Function<? super E, ?> idExtractor) {
+        return (idExtractor == null || element == null) ? "n/a" : idExtractor.apply(element);
+    }
+}
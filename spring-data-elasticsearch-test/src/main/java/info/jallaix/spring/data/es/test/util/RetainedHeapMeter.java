@@ -0,0 +1,44 @@
+package info.jallaix.spring.data.es.test.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * <p/>
+ * This class measures the retained heap usage of the JVM : the heap usage right after a garbage collection
+ * requested with {@link System#gc()}, that is an estimate of the heap retained by reachable objects.
+ * <p/>
+ * Each measure forces full garbage collections, it must not be taken on a path whose latency is measured.
+ * With a local Elasticsearch node, the heap retained by the node is included : only differences between measures
+ * taken close together are meaningful.
+ * The measures mean nothing if explicit garbage collections are disabled, with {@code -XX:+DisableExplicitGC}.
+ */
+public class RetainedHeapMeter {
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Indicate if explicit garbage collections are disabled, so that the retained heap can't be measured.
+     *
+     * @return {@code true} if the JVM runs with {@code -XX:+DisableExplicitGC}
+     */
+    public static boolean isExplicitGcDisabled() {
+        return ManagementFactory.getRuntimeMXBean().getInputArguments().contains("-XX:+DisableExplicitGC");
+    }
+
+    /**
+     * Get the heap usage after a garbage collection.
+     * The garbage collection is requested twice, so that objects with finalizers are collected too.
+     *
+     * @return The retained heap usage in bytes
+     */
+    public static long getRetainedBytes() {
+
+        System.gc();
+        System.runFinalization();
+        System.gc();
+
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
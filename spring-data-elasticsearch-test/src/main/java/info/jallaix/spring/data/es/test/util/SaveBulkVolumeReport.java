@@ -0,0 +1,83 @@
+package info.jallaix.spring.data.es.test.util;
+
+import info.jallaix.spring.data.es.test.bean.BulkVolume;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p/>
+ * Result of a large-volume bulk save test, holding the throughput, call latency and peak heap by batch size.
+ */
+public class SaveBulkVolumeReport {
+
+    /**
+     * Results by batch size
+     */
+    private final List<BulkVolume> results;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with results
+     *
+     * @param results The results by batch size
+     */
+    public SaveBulkVolumeReport(List<BulkVolume> results) {
+        this.results = Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Get the results by batch size.
+     *
+     * @return The results by batch size
+     */
+    public List<BulkVolume> getResults() {
+        return results;
+    }
+
+    /**
+     * Get the number of failed save calls over all batch sizes.
+     *
+     * @return The number of failed save calls
+     */
+    public long getErrorCount() {
+        return results.stream().mapToLong(result -> result.getLatency().getErrorCount()).sum();
+    }
+
+    /**
+     * Format the report as a table with one line per batch size.
+     *
+     * @return The formatted report
+     */
+    public String format() {
+
+        final StringBuilder builder = new StringBuilder(String.format("%10s %10s %8s %8s %10s %10s %10s %12s%n",
+                "batch", "documents", "calls", "errors", "docs/s", "p50 (ms)", "p99 (ms)", "peak heap (MB)"));
+
+        results.forEach(result -> builder.append(String.format("%10d %10d %8d %8d %10.1f %10.3f %10.3f %14.1f%n",
+                result.getBatchSize(),
+                result.getDocuments(),
+                result.getLatency().getCount(),
+                result.getLatency().getErrorCount(),
+                result.getDocumentsPerSecond(),
+                result.getLatency().getPercentileMicros(50) / 1000.0,
+                result.getLatency().getPercentileMicros(99) / 1000.0,
+                result.getPeakHeapBytes() / (1024.0 * 1024.0))));
+
+        results.forEach(result -> {
+            if (result.getLatency().getFirstError() != null)
+                builder.append(String.format("First error with batches of %d : %s%n", result.getBatchSize(), result.getLatency().getFirstError()));
+        });
+
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
@@ -0,0 +1,233 @@
+package info.jallaix.spring.data.es.test.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * <p/>
+ * Throughput and latency of a load replayed at increasing numbers of threads.
+ * <p/>
+ * The scaling efficiency of a step between two numbers of threads is the throughput speedup divided by the threads ratio :
+ * 1 means the throughput grows linearly with the threads, 0 means adding threads doesn't increase it at all.
+ * Steps are judged on the throughput of each scenario, so that a mix of fast and slow scenarios doesn't skew the efficiency.
+ *
+ * @param <K> The scenario key type
+ */
+public class ScalabilityCurve<K> {
+
+    /**
+     * Width of the throughput bars, in characters
+     */
+    private static final int BAR_WIDTH = 40;
+
+    /**
+     * Load reports, by increasing number of threads
+     */
+    private final Map<Integer, LoadReport<K>> reports;
+
+    /**
+     * Minimum scaling efficiency of each step
+     */
+    private final double minEfficiency;
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                               Public methods                                                   */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Constructor with load reports and minimum efficiency
+     *
+     * @param reports       The load reports, by increasing number of threads
+     * @param minEfficiency The minimum scaling efficiency of each step
+     */
+    public ScalabilityCurve(Map<Integer, LoadReport<K>> reports, double minEfficiency) {
+
+        this.reports = Collections.unmodifiableMap(new LinkedHashMap<>(reports));
+        this.minEfficiency = minEfficiency;
+    }
+
+    /**
+     * Get the load reports.
+     *
+     * @return The load reports, by increasing number of threads
+     */
+    public Map<Integer, LoadReport<K>> getReports() {
+        return reports;
+    }
+
+    /**
+     * Get the latency statistics of all scenarios for a number of threads.
+     *
+     * @param threads The number of threads
+     * @return The latency statistics of all scenarios
+     */
+    public LoadStatistics getStatistics(int threads) {
+
+        final LoadStatistics statistics = new LoadStatistics();
+        reports.get(threads).getStatistics().values().forEach(statistics::add);
+
+        return statistics;
+    }
+
+    /**
+     * Get the throughput of all scenarios for a number of threads.
+     *
+     * @param threads The number of threads
+     * @return The throughput in calls per second
+     */
+    public double getThroughput(int threads) {
+        return getStatistics(threads).getThroughput(reports.get(threads).getElapsedNanos());
+    }
+
+    /**
+     * Get the throughput of a scenario for a number of threads.
+     *
+     * @param threads  The number of threads
+     * @param scenario The scenario key
+     * @return The throughput in calls per second, {@code 0} if the scenario isn't played
+     */
+    public double getThroughput(int threads, K scenario) {
+
+        final LoadStatistics statistics = reports.get(threads).getStatistics().get(scenario);
+        return statistics == null ? 0 : statistics.getThroughput(reports.get(threads).getElapsedNanos());
+    }
+
+    /**
+     * Get the scaling efficiency of the step from the previous number of threads.
+     *
+     * @param threads The number of threads
+     * @return The scaling efficiency, {@code NaN} for the first number of threads or if the previous throughput is null
+     */
+    public double getEfficiency(int threads) {
+
+        final int previous = getPreviousThreads(threads);
+        if (previous <= 0 || getThroughput(previous) == 0)
+            return Double.NaN;
+
+        return (getThroughput(threads) / getThroughput(previous)) / ((double) threads / previous);
+    }
+
+    /**
+     * Get the scaling efficiency of a scenario for the step from the previous number of threads.
+     *
+     * @param threads  The number of threads
+     * @param scenario The scenario key
+     * @return The scaling efficiency, {@code NaN} for the first number of threads or if the previous throughput is null
+     */
+    public double getEfficiency(int threads, K scenario) {
+
+        final int previous = getPreviousThreads(threads);
+        if (previous <= 0 || getThroughput(previous, scenario) == 0)
+            return Double.NaN;
+
+        return (getThroughput(threads, scenario) / getThroughput(previous, scenario)) / ((double) threads / previous);
+    }
+
+    /**
+     * Describe the steps of each scenario with a scaling efficiency below the minimum one.
+     *
+     * @param keyName The function naming a scenario key
+     * @return The descriptions of the inefficient steps, empty if every scenario scales
+     */
+    public List<String> getInefficientSteps(Function<? super K, String> keyName) {
+
+        final List<String> steps = new ArrayList<>();
+        for (int threads : reports.keySet()) {
+            for (K scenario : reports.get(threads).getStatistics().keySet()) {
+                final double efficiency = getEfficiency(threads, scenario);
+                if (efficiency < minEfficiency)
+                    steps.add(String.format("%s, %d -> %d threads : efficiency %.2f below %.2f (%.1f -> %.1f calls/s)",
+                            keyName.apply(scenario), getPreviousThreads(threads), threads, efficiency, minEfficiency,
+                            getThroughput(getPreviousThreads(threads), scenario), getThroughput(threads, scenario)));
+            }
+        }
+
+        return steps;
+    }
+
+    /**
+     * Get the number of failed calls over all numbers of threads.
+     *
+     * @return The number of failed calls
+     */
+    public long getErrorCount() {
+        return reports.values().stream().mapToLong(LoadReport::getErrorCount).sum();
+    }
+
+    /**
+     * Format the curve as a table with one line per number of threads, charting the throughput of all scenarios as a bar.
+     * Steps where a scenario is inefficient are marked with a {@code <} sign.
+     *
+     * @return The formatted curve
+     */
+    public String format() {
+
+        final double maxThroughput = reports.keySet().stream().mapToDouble(this::getThroughput).max().orElse(0);
+        final StringBuilder builder = new StringBuilder(String.format("%8s %10s %8s %10s %10s %10s %10s  %s%n",
+                "threads", "calls", "errors", "calls/s", "efficiency", "p50 (ms)", "p99 (ms)", "throughput"));
+
+        for (int threads : reports.keySet()) {
+
+            final LoadStatistics statistics = getStatistics(threads);
+            final double throughput = getThroughput(threads);
+            final double efficiency = getEfficiency(threads);
+            final int barLength = maxThroughput == 0 ? 0 : (int) Math.round(BAR_WIDTH * throughput / maxThroughput);
+
+            builder.append(String.format("%8d %10d %8d %10.1f %9s%s %10.3f %10.3f  %s%n",
+                    threads,
+                    statistics.getCount(),
+                    statistics.getErrorCount(),
+                    throughput,
+                    Double.isNaN(efficiency) ? "-" : String.format("%.2f", efficiency),
+                    isInefficient(threads) ? "<" : " ",
+                    statistics.getPercentileMicros(50) / 1000.0,
+                    statistics.getPercentileMicros(99) / 1000.0,
+                    new String(new char[barLength]).replace('\0', '#')));
+        }
+
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+
+
+    /*----------------------------------------------------------------------------------------------------------------*/
+    /*                                                Private methods                                                 */
+    /*----------------------------------------------------------------------------------------------------------------*/
+
+    /**
+     * Check if a scenario is inefficient at the step from the previous number of threads.
+     *
+     * @param threads The number of threads
+     * @return {@code true} if a scenario has a scaling efficiency below the minimum one
+     */
+    private boolean isInefficient(int threads) {
+        return reports.get(threads).getStatistics().keySet().stream().anyMatch(scenario -> getEfficiency(threads, scenario) < minEfficiency);
+    }
+
+    /**
+     * Get the number of threads played before another one.
+     *
+     * @param threads The number of threads
+     * @return The previous number of threads, {@code 0} for the first one
+     */
+    private int getPreviousThreads(int threads) {
+
+        int previous = 0;
+        for (int current : reports.keySet()) {
+            if (current == threads)
+                return previous;
+            previous = current;
+        }
+
+        return 0;
+    }
+}
@@ -1,18 +1,29 @@
 package info.jallaix.spring.data.es.test.util;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.elasticsearch.action.admin.cluster.node.info.NodeInfo;
+import org.elasticsearch.action.admin.cluster.node.stats.NodeStats;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.settings.ImmutableSettings;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.sort.SortOrder;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.threadpool.ThreadPoolStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
 import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -40,6 +51,11 @@ public class TestClientOperations {
      */
     private static final Logger logger = LoggerFactory.getLogger(TestClientOperations.class);
 
+    /**
+     * Keep-alive of the scroll contexts between two batches
+     */
+    private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
 
     /*----------------------------------------------------------------------------------------------------------------*/
     /*                                               Public methods                                                   */
@@ -90,6 +106,23 @@ public class TestClientOperations {
                         .get());
     }
 
+    /**
+     * Get the version of a document in the index.
+     *
+     * @param documentMetadata The Elasticsearch document metadata
+     * @param id               The document id
+     * @return The document version, {@code -1} if the document doesn't exist
+     */
+    public long getDocumentVersion(ElasticsearchPersistentEntity<?> documentMetadata, String id) {
+
+        final GetResponse response = esClient
+                .prepareGet(documentMetadata.getIndexName(), documentMetadata.getIndexType(), id)
+                .setFetchSource(false)
+                .get();
+
+        return response.isExists() ? response.getVersion() : -1;
+    }
+
     /**
      * Find all typed documents in the index.
      *
@@ -163,6 +196,148 @@ public class TestClientOperations {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Find all typed documents with sorting, by scrolling over the sorted hits instead of paging with {@code from/size}.
+     * Each scroll batch resumes from the previous one, so its cost doesn't grow with the number of documents already read.
+     *
+     * @param <T>               The document type
+     * @param documentMetadata  The Elasticsearch document metadata
+     * @param documentSortField The document sort field
+     * @param batchSize         The number of documents read by scroll batch
+     * @return The typed documents found
+     */
+    public <T> List<T> scrollAllDocumentsSorted(ElasticsearchPersistentEntity<?> documentMetadata, Field documentSortField, int batchSize) {
+
+        @SuppressWarnings("unchecked")
+        final Class<T> documentClass = (Class<T>) documentMetadata.getType();
+        final List<T> documents = new ArrayList<>();
+
+        SearchResponse response = esClient.prepareSearch(documentMetadata.getIndexName())
+                .setTypes(documentMetadata.getIndexType())
+                .setScroll(SCROLL_KEEP_ALIVE)
+                .setSize(batchSize)
+                .addSort(documentSortField.getName(), SortOrder.DESC)
+                .execute()
+                .actionGet();
+        try {
+            while (response.getHits().getHits().length > 0) {
+                for (SearchHit hit : response.getHits())
+                    documents.add(fromJson(documentClass, hit));
+
+                response = esClient.prepareSearchScroll(response.getScrollId())
+                        .setScroll(SCROLL_KEEP_ALIVE)
+                        .execute()
+                        .actionGet();
+            }
+        } finally {
+            esClient.prepareClearScroll().addScrollId(response.getScrollId()).get();
+        }
+
+        return documents;
+    }
+
+    /**
+     * Delete typed documents from the index with bulk requests, then refresh the index.
+     *
+     * @param documentMetadata The Elasticsearch document metadata
+     * @param ids              The identifiers of the documents to delete
+     * @param batchSize        The number of documents deleted by bulk request
+     */
+    public void deleteDocuments(ElasticsearchPersistentEntity<?> documentMetadata, List<String> ids, int batchSize) {
+
+        for (int from = 0; from < ids.size(); from += batchSize) {
+
+            final BulkRequestBuilder bulk = esClient.prepareBulk();
+            ids.subList(from, Math.min(from + batchSize, ids.size()))
+                    .forEach(id -> bulk.add(esClient.prepareDelete(documentMetadata.getIndexName(), documentMetadata.getIndexType(), id)));
+
+            final BulkResponse response = bulk.get();
+            if (response.hasFailures())
+                throw new IllegalStateException("Documents could not be deleted : " + response.buildFailureMessage());
+        }
+
+        refreshIndex(documentMetadata);
+    }
+
+    /**
+     * Index a document with the Spring Data mapping, then refresh the index.
+     *
+     * @param documentMetadata The Elasticsearch document metadata
+     * @param id               The document id
+     * @param document         The document to index
+     */
+    public void indexDocument(ElasticsearchPersistentEntity<?> documentMetadata, String id, Object document) {
+
+        esOperations.index(new IndexQueryBuilder().withId(id).withObject(document).build());
+        refreshIndex(documentMetadata);
+    }
+
+    /**
+     * Refresh the index, so that the indexed documents become searchable.
+     *
+     * @param documentMetadata The Elasticsearch document metadata
+     */
+    public void refreshIndex(ElasticsearchPersistentEntity<?> documentMetadata) {
+        esClient.admin().indices().prepareRefresh(documentMetadata.getIndexName()).get();
+    }
+
+    /**
+     * Get the settings of a thread pool, from the first node of the cluster.
+     *
+     * @param poolName The thread pool name, such as {@code bulk}
+     * @return The thread pool settings, {@code null} if the pool doesn't exist
+     */
+    public ThreadPool.Info getThreadPoolInfo(String poolName) {
+
+        for (NodeInfo nodeInfo : esClient.admin().cluster().prepareNodesInfo().setThreadPool(true).get().getNodes())
+            for (ThreadPool.Info poolInfo : nodeInfo.getThreadPool())
+                if (poolInfo.getName().equals(poolName))
+                    return poolInfo;
+
+        return null;
+    }
+
+    /**
+     * Get the statistics of a thread pool, summed over the nodes of the cluster.
+     *
+     * @param poolName The thread pool name, such as {@code bulk}
+     * @return The thread pool statistics
+     */
+    public ThreadPoolStats.Stats getThreadPoolStats(String poolName) {
+
+        int threads = 0, queue = 0, active = 0, largest = 0;
+        long rejected = 0, completed = 0;
+        for (NodeStats nodeStats : esClient.admin().cluster().prepareNodesStats().setThreadPool(true).get().getNodes())
+            for (ThreadPoolStats.Stats poolStats : nodeStats.getThreadPool())
+                if (poolStats.getName().equals(poolName)) {
+                    threads += poolStats.getThreads();
+                    queue += poolStats.getQueue();
+                    active += poolStats.getActive();
+                    largest += poolStats.getLargest();
+                    rejected += poolStats.getRejected();
+                    completed += poolStats.getCompleted();
+                }
+
+        return new ThreadPoolStats.Stats(poolName, threads, queue, active, rejected, largest, completed);
+    }
+
+    /**
+     * Resize a thread pool of the cluster nodes, with transient cluster settings.
+     *
+     * @param poolName  The thread pool name, such as {@code bulk}
+     * @param size      The number of threads
+     * @param queueSize The queue size, {@code -1} for an unbounded queue
+     */
+    public void updateThreadPool(String poolName, int size, int queueSize) {
+
+        esClient.admin().cluster().prepareUpdateSettings()
+                .setTransientSettings(ImmutableSettings.settingsBuilder()
+                        .put("threadpool." + poolName + ".size", size)
+                        .put("threadpool." + poolName + ".queue_size", queueSize)
+                        .build())
+                .get();
+    }
+
     /**
      * Convert an Elasticsearch search hit to an entity
      *